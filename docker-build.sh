@@ -1,6 +1,8 @@
 #!/bin/sh
 if [ "$1" = "graalvm" ]; then
     docker build -f Dockerfile.graalvm . -t demo
+elif [ "$1" = "crac" ]; then
+    docker build -f Dockerfile.crac . -t demo-crac
 else
     docker build . -t demo
 fi
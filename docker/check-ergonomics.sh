@@ -0,0 +1,54 @@
+#!/bin/sh
+# Checks the JVM settings docker/jvm-entrypoint.sh produces under a few simulated container limits.
+# Build the image first (./docker-build.sh), then run: docker/check-ergonomics.sh [image]
+set -eu
+
+IMAGE=${1:-demo}
+FAILURES=0
+
+# check <memory limit in MB> <cpus> <workload> <expected GC flag>
+check() {
+    memory_mb=$1
+    cpus=$2
+    workload=$3
+    gc_flag=$4
+
+    output=$(docker run --rm --memory "${memory_mb}m" --cpus "$cpus" -e JVM_WORKLOAD="$workload" \
+        "$IMAGE" --print-flags 2>&1)
+
+    flag() {
+        echo "$output" | awk -v name="$1" '$2 == name { print $4 }'
+    }
+
+    max_heap_mb=$(( $(flag MaxHeapSize) / 1024 / 1024 ))
+    # Default MaxRAMPercentage is 75, allow for the collector's heap alignment
+    expected_mb=$(( memory_mb * 75 / 100 ))
+    processors=$(echo "$output" | awk -F: '/Effective CPU Count/ { gsub(/ /, "", $2); print $2 }')
+    expected_processors=$(printf '%.0f' "$(echo "$cpus" | awk '{ print ($1 < 1) ? 1 : $1 }')")
+
+    status=ok
+    if [ "$max_heap_mb" -lt $(( expected_mb * 90 / 100 )) ] || [ "$max_heap_mb" -gt "$expected_mb" ]; then
+        status="FAIL heap ${max_heap_mb}MB, expected ~${expected_mb}MB"
+    elif [ "$(flag "$gc_flag")" != "true" ]; then
+        status="FAIL $gc_flag not enabled"
+    elif [ -n "$processors" ] && [ "$processors" != "$expected_processors" ]; then
+        status="FAIL $processors CPUs, expected $expected_processors"
+    elif [ "$(flag AOTCache)" != "/app/app.aot" ]; then
+        status="FAIL AOT cache not in use"
+    fi
+
+    echo "memory=${memory_mb}MB cpus=$cpus workload=$workload heap=${max_heap_mb}MB gc=$gc_flag: $status"
+    case "$status" in
+        ok) ;;
+        *) FAILURES=$((FAILURES + 1)) ;;
+    esac
+}
+
+check 512 1 balanced UseG1GC
+check 1024 2 throughput UseParallelGC
+check 2048 4 latency UseZGC
+
+if [ "$FAILURES" -gt 0 ]; then
+    echo "$FAILURES check(s) failed"
+    exit 1
+fi
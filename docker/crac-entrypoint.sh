@@ -0,0 +1,14 @@
+#!/bin/sh
+# Restores from the checkpoint in $CRAC_DIR when there is one. Otherwise starts the application in
+# the "crac" environment: it warms itself up (see CheckpointOnStartup), writes the checkpoint to
+# $CRAC_DIR and exits. Both phases need CAP_CHECKPOINT_RESTORE (or --privileged).
+set -eu
+
+CRAC_DIR=${CRAC_DIR:-/crac}
+
+if [ -f "$CRAC_DIR/core.img" ] || ls "$CRAC_DIR"/core-*.img > /dev/null 2>&1; then
+    exec java -XX:CRaCRestoreFrom="$CRAC_DIR"
+fi
+
+mkdir -p "$CRAC_DIR"
+exec java -XX:CRaCCheckpointTo="$CRAC_DIR" -Dmicronaut.environments=crac -jar demo.jar
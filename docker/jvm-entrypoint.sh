@@ -0,0 +1,55 @@
+#!/bin/sh
+# Launches the application with JVM settings derived from the container limits instead of a fixed
+# heap. Environment variables:
+#
+#   JVM_WORKLOAD            throughput (ParallelGC), latency (generational ZGC) or balanced (G1, default)
+#   JVM_MAX_RAM_PERCENTAGE  share of the container memory limit used for the heap (default 75)
+#   JVM_JFR                 continuous JFR recording into $JVM_JFR_DIR, dumped on exit (default true)
+#   JVM_JFR_SETTINGS        comma-separated settings of that recording (default "default"), e.g.
+#                           "default,/app/demo.jfc" to record the application events with lower thresholds
+#   JAVA_OPTS               extra options appended last, so they win over the defaults
+#
+# `entrypoint.sh --print-flags` prints the effective settings instead of starting the application
+# (used by docker/check-ergonomics.sh).
+set -eu
+
+JVM_WORKLOAD=${JVM_WORKLOAD:-balanced}
+JVM_MAX_RAM_PERCENTAGE=${JVM_MAX_RAM_PERCENTAGE:-75}
+JVM_JFR=${JVM_JFR:-true}
+JVM_JFR_DIR=${JVM_JFR_DIR:-/tmp/jfr}
+JVM_JFR_SETTINGS=${JVM_JFR_SETTINGS:-default}
+AOT_CACHE=${AOT_CACHE:-/app/app.aot}
+
+case "$JVM_WORKLOAD" in
+    throughput) GC_OPTS="-XX:+UseParallelGC" ;;
+    latency) GC_OPTS="-XX:+UseZGC" ;;
+    balanced) GC_OPTS="-XX:+UseG1GC" ;;
+    *)
+        echo "Unknown JVM_WORKLOAD '$JVM_WORKLOAD' (throughput, latency or balanced)" >&2
+        exit 1
+        ;;
+esac
+
+OPTS="-XX:MaxRAMPercentage=$JVM_MAX_RAM_PERCENTAGE -XX:InitialRAMPercentage=$JVM_MAX_RAM_PERCENTAGE"
+OPTS="$OPTS $GC_OPTS -XX:+ExitOnOutOfMemoryError"
+
+# Class loading and linking from the AOT cache recorded when the image was built
+if [ -f "$AOT_CACHE" ]; then
+    OPTS="$OPTS -XX:AOTCache=$AOT_CACHE"
+fi
+
+if [ "$JVM_JFR" = "true" ]; then
+    mkdir -p "$JVM_JFR_DIR"
+    JFR_SETTINGS="settings=$(echo "$JVM_JFR_SETTINGS" | sed 's/,/,settings=/g')"
+    OPTS="$OPTS -XX:StartFlightRecording=name=continuous,$JFR_SETTINGS,disk=true,maxage=6h,maxsize=256m,dumponexit=true,filename=$JVM_JFR_DIR"
+fi
+
+OPTS="$OPTS ${JAVA_OPTS:-}"
+
+if [ "${1-}" = "--print-flags" ]; then
+    # shellcheck disable=SC2086
+    exec java $OPTS -XX:+PrintFlagsFinal -XshowSettings:system -version
+fi
+
+# shellcheck disable=SC2086
+exec java $OPTS -jar /app/demo.jar "$@"
@@ -0,0 +1,76 @@
+#!/bin/sh
+# Compares the JVM jar with the native binary under the load-test workload and records the
+# artifact size, the RSS after the run and the throughput in target/bench/report.md.
+#
+# Requires GraalVM 25 (native-image) as JAVA_HOME and a running PostgreSQL (see README).
+#
+#   ./native-benchmark.sh        JVM vs native
+#   ./native-benchmark.sh pgo    JVM vs native vs PGO-optimized native (Oracle GraalVM only)
+#
+# DURATION (seconds) and CONCURRENCY tune the LoadGenerator run.
+set -eu
+
+DURATION=${DURATION:-30}
+CONCURRENCY=${CONCURRENCY:-32}
+URL=http://localhost:8080
+OUT=target/bench
+
+wait_for_server() {
+    i=0
+    until curl -s -o /dev/null "$URL/swagger/demo-0.1.yml"; do
+        i=$((i + 1))
+        if [ "$i" -gt 600 ]; then
+            echo "Server did not start, see $OUT/$1.log" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+}
+
+# measure <name> <artifact> <command...>
+measure() {
+    name=$1
+    artifact=$2
+    shift 2
+    "$@" > "$OUT/$name.log" 2>&1 &
+    pid=$!
+    wait_for_server "$name"
+    java -cp target/test-classes com.example.load.LoadGenerator "$URL" "$DURATION" "$CONCURRENCY" > "$OUT/$name.txt"
+    rss_kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill -TERM "$pid"
+    wait "$pid" || true
+
+    size_mb=$(du -m "$artifact" | cut -f1)
+    throughput=$(grep '^throughput=' "$OUT/$name.txt" | cut -d= -f2)
+    p99=$(grep '^p99_ms=' "$OUT/$name.txt" | cut -d= -f2)
+    echo "| $name | $size_mb | $((rss_kb / 1024)) | $throughput | $p99 |" >> "$OUT/report.md"
+}
+
+mkdir -p "$OUT"
+./mvnw -q package -DskipTests
+cp target/demo-0.1.jar "$OUT/demo.jar"
+
+{
+    echo "Workload: LoadGenerator, ${DURATION}s, concurrency $CONCURRENCY"
+    echo
+    echo "| Build | Artifact (MB) | RSS after load (MB) | Throughput (req/s) | p99 (ms) |"
+    echo "|-------|---------------|---------------------|--------------------|----------|"
+} > "$OUT/report.md"
+
+measure jvm "$OUT/demo.jar" java -jar "$OUT/demo.jar"
+
+./mvnw -q package -Dpackaging=native-image -DskipTests
+cp target/demo "$OUT/demo"
+measure native "$OUT/demo" "$OUT/demo"
+
+if [ "${1-}" = "pgo" ]; then
+    # The instrumented binary writes default.iprof to the working directory on exit
+    ./mvnw -q package -Dpackaging=native-image -DskipTests -Ppgo-instrument
+    rm -f default.iprof
+    measure native-instrumented target/demo-instrumented target/demo-instrumented
+    ./mvnw -q package -Dpackaging=native-image -DskipTests -Ppgo -Dpgo.profile="$(pwd)/default.iprof"
+    cp target/demo "$OUT/demo-pgo"
+    measure native-pgo "$OUT/demo-pgo" "$OUT/demo-pgo"
+fi
+
+cat "$OUT/report.md"
@@ -0,0 +1,61 @@
+#!/bin/sh
+# Compares the JDBC and the R2DBC author endpoints of the same JVM under a high-concurrency
+# LoadGenerator run each, and records throughput and latencies in target/bench/reactive.md.
+#
+# Requires a running PostgreSQL (see README), ideally loaded with CatalogueGenerator.
+#
+#   ./reactive-benchmark.sh
+#
+# DURATION (seconds), CONCURRENCY and AUTHOR tune the LoadGenerator runs.
+set -eu
+
+DURATION=${DURATION:-30}
+CONCURRENCY=${CONCURRENCY:-512}
+AUTHOR=${AUTHOR:-Stephen%20King}
+URL=http://localhost:8080
+OUT=target/bench
+
+wait_for_server() {
+    i=0
+    until curl -s -o /dev/null "$URL/swagger/demo-0.1.yml"; do
+        i=$((i + 1))
+        if [ "$i" -gt 600 ]; then
+            echo "Server did not start, see $OUT/reactive.log" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+}
+
+# value <key> <name>
+value() {
+    grep "^$1=" "$OUT/$2.txt" | cut -d= -f2
+}
+
+# measure <name> <path>
+measure() {
+    java -cp target/test-classes com.example.load.LoadGenerator "$URL" "$DURATION" "$CONCURRENCY" "$2" \
+        > "$OUT/$1.txt"
+    echo "| $1 | $(value throughput "$1") | $(value p50_ms "$1") | $(value p99_ms "$1") | $(value errors "$1") |" \
+        >> "$OUT/reactive.md"
+}
+
+mkdir -p "$OUT"
+./mvnw -q package -DskipTests
+
+REACTIVE_ENABLED=true java -jar target/demo-0.1.jar > "$OUT/reactive.log" 2>&1 &
+pid=$!
+trap 'kill -TERM "$pid" 2>/dev/null || true' EXIT
+wait_for_server
+
+{
+    echo "Workload: LoadGenerator, ${DURATION}s, concurrency $CONCURRENCY, author $AUTHOR"
+    echo
+    echo "| Stack | Throughput (req/s) | p50 (ms) | p99 (ms) | Errors |"
+    echo "|-------|--------------------|----------|----------|--------|"
+} > "$OUT/reactive.md"
+
+measure jdbc "/authors/by-name?author=$AUTHOR&username=admin"
+measure r2dbc "/reactive/authors/by-name?author=$AUTHOR&username=admin"
+
+cat "$OUT/reactive.md"
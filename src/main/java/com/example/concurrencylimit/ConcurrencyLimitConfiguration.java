@@ -0,0 +1,91 @@
+package com.example.concurrencylimit;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Adaptive concurrency limits of the calls to the database and to OMDB.
+ */
+@ConfigurationProperties(ConcurrencyLimitConfiguration.PREFIX)
+public class ConcurrencyLimitConfiguration {
+
+    public static final String PREFIX = "concurrency-limit";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * Whether the calls annotated with {@link ConcurrencyLimited} are limited.
+     */
+    private boolean enabled;
+
+    /**
+     * Calls allowed in flight before any latency is measured.
+     */
+    private int initialLimit = 10;
+
+    /**
+     * Lowest number of calls allowed in flight.
+     */
+    private int minLimit = 1;
+
+    /**
+     * Highest number of calls allowed in flight.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * How much slower than when healthy the calls can get before the limit shrinks.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * How much each call moves the limit, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.concurrencylimit;
+
+import com.example.exceptions.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the {@link GradientLimiter} of the dependency named by {@link ConcurrencyLimited}.
+ * <p>
+ * It runs before the transaction interceptor, so a refused call never takes a connection from the pool.
+ * Metrics, tagged with the dependency name: {@code concurrency_limit.limit}, {@code concurrency_limit.in_flight}
+ * and {@code concurrency_limit.rejected}.
+ * </p>
+ */
+@Singleton
+@InterceptorBean(ConcurrencyLimited.class)
+public class ConcurrencyLimitInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final ConcurrencyLimitConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitConfiguration configuration, MeterRegistry meterRegistry) {
+        this.configuration = configuration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return InterceptPhase.TRANSACTION.getPosition() - 10;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!configuration.isEnabled()) {
+            return context.proceed();
+        }
+        String name = context.stringValue(ConcurrencyLimited.class).orElseThrow();
+        Limit limit = limits.computeIfAbsent(name, this::newLimit);
+        if (!limit.limiter().tryAcquire()) {
+            limit.rejected().increment();
+            throw new ConcurrencyLimitExceededException(name);
+        }
+        long start = System.nanoTime();
+        try {
+            return context.proceed();
+        } finally {
+            limit.limiter().release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param name The name of the dependency
+     * @return Its limiter, {@code null} until it is first called
+     */
+    GradientLimiter limiter(String name) {
+        Limit limit = limits.get(name);
+        return limit == null ? null : limit.limiter();
+    }
+
+    private Limit newLimit(String name) {
+        GradientLimiter limiter = new GradientLimiter(configuration.getInitialLimit(), configuration.getMinLimit(),
+                configuration.getMaxLimit(), configuration.getTolerance(), configuration.getSmoothing());
+        Gauge.builder("concurrency_limit.limit", limiter, GradientLimiter::limit)
+                .tag("name", name)
+                .description("Calls allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("concurrency_limit.in_flight", limiter, GradientLimiter::inFlight)
+                .tag("name", name)
+                .description("Calls in flight")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("concurrency_limit.rejected")
+                .tag("name", name)
+                .description("Calls refused because the limit was reached")
+                .register(meterRegistry);
+        return new Limit(limiter, rejected);
+    }
+
+    private record Limit(GradientLimiter limiter, Counter rejected) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.concurrencylimit;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guard the calls of a method, or of every method of a bean, with the adaptive limit of a dependency. When
+ * the limit is reached the calls fail fast with {@link com.example.exceptions.ConcurrencyLimitExceededException}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface ConcurrencyLimited {
+
+    /**
+     * @return The name of the dependency. Methods with the same name share the same limit.
+     */
+    String value();
+}
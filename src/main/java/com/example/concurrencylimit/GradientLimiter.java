@@ -0,0 +1,121 @@
+package com.example.concurrencylimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the latency of the calls it guards.
+ * <p>
+ * It keeps two moving averages of the call latency: a long one, the latency of the dependency when healthy,
+ * and a short one, its current latency. While the current latency stays within {@code tolerance} times the
+ * healthy one the limit grows by about its square root; above, calls are queueing in the dependency and the
+ * limit shrinks in proportion (the gradient algorithm). Queues show up as latency long before they show up as
+ * errors, and the calls over the limit are refused straight away instead of joining them.
+ * </p>
+ * <p>
+ * The healthy latency is only learnt from the calls that do not queue, so sustained overload does not drag it
+ * up. The limit only grows when at least half of it is in use, so a quiet period does not leave a limit too
+ * high to protect anything when the load comes back.
+ * </p>
+ */
+public final class GradientLimiter {
+
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    /**
+     * @param initialLimit The limit until latencies are measured
+     * @param minLimit     The lowest limit
+     * @param maxLimit     The highest limit
+     * @param tolerance    How much slower than when healthy the calls can get before the limit shrinks
+     * @param smoothing    How much each measure moves the limit, between 0 and 1
+     */
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Start a call, unless the limit is reached. A started call must be followed by {@link #release(long)}.
+     *
+     * @return Whether the call can start
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * End a call, successful or not, and adjust the limit to its latency.
+     *
+     * @param rttNanos How long the call took, in nanoseconds
+     */
+    public void release(long rttNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        update(rttNanos, concurrent);
+    }
+
+    /**
+     * @return The number of calls allowed in flight
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return The number of calls in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rtt, int concurrent) {
+        if (longRtt == 0) {
+            longRtt = rtt;
+            shortRtt = rtt;
+        }
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        boolean queueing = shortRtt > tolerance * longRtt;
+        if (!queueing) {
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+        } else if (limit <= minLimit) {
+            // No queue left to blame at the lowest limit: the dependency itself got slower
+            longRtt += (rtt - longRtt) / SHORT_WINDOW;
+        }
+        if (rtt < longRtt) {
+            // Faster than the healthy latency, which was learnt under load
+            longRtt += (rtt - longRtt) / SHORT_WINDOW;
+        }
+        if (concurrent < estimatedLimit / 2) {
+            return;
+        }
+
+        double target = queueing
+                ? estimatedLimit * Math.max(0.5, tolerance * longRtt / shortRtt)
+                : estimatedLimit + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
@@ -1,45 +1,81 @@
 package com.example.controllers;
 
+import com.example.exceptions.AuthorNotFoundException;
 import com.example.exceptions.UserUnauthorizedException;
+import com.example.idempotency.IdempotencyStore;
+import com.example.idempotency.StoredResponse;
 import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
 import com.example.security.SecurityService;
 import com.example.services.AuthorService;
+import com.example.services.SavedAuthor;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.Post;
 import io.micronaut.http.annotation.QueryValue;
-import io.micronaut.http.annotation.Status;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.tracing.annotation.NewSpan;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Optional;
 
 @Controller("/authors")
 public class AuthorController {
 
+    /**
+     * Header set on the responses replayed for an idempotency key.
+     */
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final AuthorService authorService;
     private final SecurityService securityService;
+    private final IdempotencyStore idempotencyStore;
+    private final JsonMapper jsonMapper;
 
     public AuthorController(AuthorService authorService,
-                            SecurityService securityService) {
+                            SecurityService securityService,
+                            IdempotencyStore idempotencyStore,
+                            JsonMapper jsonMapper) {
         this.authorService = authorService;
         this.securityService = securityService;
+        this.idempotencyStore = idempotencyStore;
+        this.jsonMapper = jsonMapper;
     }
 
     @Operation(operationId = "createAuthor",
             summary = "Create a new author",
-            description = "Create a new author.",
+            description = "Create a new author, or return the existing one with the same name. Send an 'Idempotency-Key' header to safely retry the request: a retry with the same key gets the original response back.",
+            parameters = {
+                    @Parameter(in = ParameterIn.HEADER, name = IdempotencyStore.HEADER, required = false, description = "A unique key for the request, reused by its retries", example = "5b9e6c9e-43a7-4b8e-9a4b-1f3f0b7b8a51"),
+            },
             requestBody = @RequestBody(content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = CreateAuthorRequest.class)
@@ -50,13 +86,54 @@ public class AuthorController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = Author.class))
                     ),
+                    @ApiResponse(responseCode = "200", description = "An author with the same name already exists",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Author.class))
+                    ),
                     @ApiResponse(responseCode = "400", description = "invalid or missing parameters"),
                     @ApiResponse(responseCode = "401", description = "if not authenticated as admin"),
+                    @ApiResponse(responseCode = "409", description = "if a request with the same idempotency key is still in progress, with a Retry-After header"),
+                    @ApiResponse(responseCode = "422", description = "if the idempotency key was already used for another author"),
             })
     @Post
-    @Status(HttpStatus.CREATED)
-    public Author createAuthor(@NotNull @Valid @Body CreateAuthorRequest createAuthorRequest) {
-        return authorService.saveAuthor(createAuthorRequest.getName());
+    public HttpResponse<?> createAuthor(@NotNull @Valid @Body CreateAuthorRequest createAuthorRequest,
+                                        @Header(IdempotencyStore.HEADER) @Nullable @Size(max = 255) String idempotencyKey) {
+        String name = createAuthorRequest.getName();
+        if (idempotencyKey == null) {
+            SavedAuthor saved = authorService.saveAuthor(name);
+            return HttpResponse.status(status(saved)).body(saved.author());
+        }
+
+        // Reserved before saving the author, so that a retry sent while this request is in progress does not save it too
+        Optional<StoredResponse> stored = idempotencyStore.reserve(idempotencyKey, name);
+        if (stored.isPresent()) {
+            if (!stored.get().fingerprint().equals(name)) {
+                return HttpResponse.unprocessableEntity()
+                        .body(new JsonError("Idempotency key already used for another author"));
+            }
+            if (stored.get().isInProgress()) {
+                return HttpResponse.status(HttpStatus.CONFLICT)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new JsonError("A request with the same idempotency key is in progress"));
+            }
+            return HttpResponse.status(HttpStatus.valueOf(stored.get().status()))
+                    .contentType(MediaType.APPLICATION_JSON_TYPE)
+                    .header(IDEMPOTENT_REPLAYED, "true")
+                    .body(stored.get().body());
+        }
+
+        SavedAuthor saved;
+        byte[] body;
+        try {
+            saved = authorService.saveAuthor(name);
+            body = serialize(saved.author());
+        } catch (RuntimeException e) {
+            idempotencyStore.release(idempotencyKey);
+            throw e;
+        }
+        idempotencyStore.save(idempotencyKey, new StoredResponse(name, status(saved).getCode(), body));
+        return HttpResponse.status(status(saved)).contentType(MediaType.APPLICATION_JSON_TYPE).body(body);
     }
 
     @Operation(operationId = "findAuthorByName",
@@ -65,23 +142,103 @@ public class AuthorController {
             parameters = {
                     @Parameter(in = ParameterIn.QUERY, name = "author", required = true, description = "The author name to find", example = "Stephen King"),
                     @Parameter(in = ParameterIn.QUERY, name = "username", required = false, description = "The username", example = "admin"),
+                    @Parameter(in = ParameterIn.QUERY, name = "offset", required = false, description = "The number of books to skip, books are ordered by title", example = "0"),
+                    @Parameter(in = ParameterIn.QUERY, name = "limit", required = false, description = "The maximum number of books to return, all of them by default", example = "20"),
+                    @Parameter(in = ParameterIn.QUERY, name = "fields", required = false, description = "The fields to return, a comma separated list of id, name and books, all of them by default. The books are only read when returned.", example = "id,name"),
+                    @Parameter(in = ParameterIn.QUERY, name = "expand", required = false, description = "'books' to return the books along with the requested fields", example = "books"),
             },
             responses = {
-                    @ApiResponse(responseCode = "200", description = "The author.",
+                    @ApiResponse(responseCode = "200", description = "The author, with the requested fields only.",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = Author.class))
                     ),
+                    @ApiResponse(responseCode = "400", description = "invalid or missing parameters"),
                     @ApiResponse(responseCode = "404", description = "if the author doesn't exist.")
             })
     @Get("/by-name")
-    public Optional<Author> findAuthorByName(@NotBlank @QueryValue("author") String author,
-                                             @QueryValue("username") @Nullable String username) {
+    @NewSpan
+    public HttpResponse<?> findAuthorByName(@NotBlank @QueryValue("author") String author,
+                                            @QueryValue("username") @Nullable String username,
+                                            @QueryValue(value = "offset", defaultValue = "0") @PositiveOrZero int offset,
+                                            @QueryValue("limit") @Nullable @Positive Integer limit,
+                                            @QueryValue("fields") @Nullable
+                                            @Pattern(regexp = AuthorFields.FIELDS_PATTERN) String fields,
+                                            @QueryValue("expand") @Nullable
+                                            @Pattern(regexp = AuthorFields.EXPAND_PATTERN) String expand) {
         if (!securityService.canUserAccess(username)) {
-            throw new UserUnauthorizedException();
+            throw UserUnauthorizedException.instance();
+        }
+
+        AuthorFields selected = AuthorFields.of(fields, expand);
+        // Not an empty `Optional`: Micronaut would build its generic 404 body for every miss, the handler of
+        // `AuthorNotFoundException` answers with a body serialized once.
+        if (!selected.books()) {
+            // A single query on the author, the books are not read at all
+            AuthorMatch found = authorService.findAuthorWithoutBooks(author)
+                    .orElseThrow(AuthorNotFoundException::instance);
+            return HttpResponse.ok(selected.select(found.getId(), found.getName(), null));
         }
+        Author found = authorService.findAuthorByName(author, offset, limit != null ? limit : AuthorService.ALL_BOOKS)
+                .orElseThrow(AuthorNotFoundException::instance);
+        if (selected.equals(AuthorFields.ALL)) {
+            return HttpResponse.ok(found);
+        }
+        return HttpResponse.ok(selected.select(found.getId(), found.getName(), found.getBooks()));
+    }
 
-        // If the author is not found Micronaut will transform the empty `Optional` into a 404 response.
-        return authorService.findAuthorByName(author);
+    @Operation(operationId = "findAuthorStats",
+            summary = "Find the stats of an author",
+            description = "The number of books and pages of an author. They are maintained as books are added, so the books are not read whatever their number.",
+            parameters = {
+                    @Parameter(in = ParameterIn.PATH, name = "id", required = true, description = "The author id", example = "42"),
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The stats, zero for an author without books.",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = AuthorStats.class))
+                    ),
+                    @ApiResponse(responseCode = "404", description = "if the author doesn't exist.")
+            })
+    @Get("/{id}/stats")
+    public AuthorStats findAuthorStats(@PathVariable("id") long id) {
+        return authorService.findAuthorStats(id)
+                .orElseThrow(AuthorNotFoundException::instance);
+    }
+
+    @Operation(operationId = "searchAuthors",
+            summary = "Search authors by name",
+            description = "Search authors whose name starts with or is similar to the query, ignoring case. Authors whose name starts with the query come first, most books first, then the rest by similarity.",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "q", required = true, description = "What the user typed", example = "stephen k"),
+                    @Parameter(in = ParameterIn.QUERY, name = "offset", required = false, description = "The number of authors to skip", example = "0"),
+                    @Parameter(in = ParameterIn.QUERY, name = "limit", required = false, description = "The maximum number of authors to return, up to 100", example = "10"),
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The matching authors, best match first, without their books.",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = AuthorMatch.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "invalid or missing parameters")
+            })
+    @Get("/search")
+    public List<AuthorMatch> searchAuthors(@NotBlank @QueryValue("q") String query,
+                                          @QueryValue(value = "offset", defaultValue = "0") @PositiveOrZero int offset,
+                                          @QueryValue(value = "limit", defaultValue = "10") @Positive @Max(100) int limit) {
+        return authorService.searchAuthors(query, offset, limit);
+    }
+
+    static HttpStatus status(SavedAuthor saved) {
+        return saved.created() ? HttpStatus.CREATED : HttpStatus.OK;
+    }
+
+    private byte[] serialize(Author author) {
+        try {
+            return jsonMapper.writeValueAsBytes(author);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.example.controllers;
+
+import com.example.model.Book;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of an author requested with {@code ?fields=} and {@code ?expand=} on {@code /authors/by-name}.
+ *
+ * @param id    Whether the id is returned
+ * @param name  Whether the name is returned
+ * @param books Whether the books are returned, and read
+ */
+record AuthorFields(boolean id, boolean name, boolean books) {
+
+    /**
+     * The values accepted by {@code fields}, a comma separated list of {@code id}, {@code name} and {@code books}.
+     */
+    static final String FIELDS_PATTERN = "(id|name|books)(,(id|name|books))*";
+
+    /**
+     * The values accepted by {@code expand}.
+     */
+    static final String EXPAND_PATTERN = "books";
+
+    static final AuthorFields ALL = new AuthorFields(true, true, true);
+
+    /**
+     * @param fields The requested fields, all of them when {@code null}
+     * @param expand {@code books} to return the books whatever the fields
+     * @return The selected fields, already validated against {@link #FIELDS_PATTERN} and {@link #EXPAND_PATTERN}
+     */
+    static AuthorFields of(@Nullable String fields, @Nullable String expand) {
+        boolean expandBooks = expand != null;
+        if (fields == null) {
+            return ALL;
+        }
+        boolean id = false;
+        boolean name = false;
+        boolean books = expandBooks;
+        for (String field : fields.split(",")) {
+            switch (field) {
+                case "id" -> id = true;
+                case "name" -> name = true;
+                default -> books = true;
+            }
+        }
+        return new AuthorFields(id, name, books);
+    }
+
+    /**
+     * @return The selected fields of an author, in the order of {@link com.example.model.Author}
+     */
+    Map<String, Object> select(long authorId, String authorName, @Nullable List<Book> authorBooks) {
+        Map<String, Object> author = new LinkedHashMap<>(4);
+        if (id) {
+            author.put("id", authorId);
+        }
+        if (name) {
+            author.put("name", authorName);
+        }
+        if (books) {
+            author.put("books", authorBooks);
+        }
+        return author;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.controllers;
 
 import com.example.omdb.Movie;
-import com.example.omdb.OmdbClient;
+import com.example.omdb.OmdbApi;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.QueryValue;
@@ -19,10 +19,10 @@ import java.util.Optional;
 @ExecuteOn(TaskExecutors.BLOCKING)
 public class MovieController {
 
-    private final OmdbClient omdbClient;
+    private final OmdbApi omdbApi;
 
-    public MovieController(OmdbClient omdbClient) {
-        this.omdbClient = omdbClient;
+    public MovieController(OmdbApi omdbApi) {
+        this.omdbApi = omdbApi;
     }
 
     @Operation(operationId = "findMovieByTitle",
@@ -38,6 +38,6 @@ public class MovieController {
             })
     @Get("/by-title")
     public Optional<Movie> findMovieByTitle(@NotBlank @QueryValue("title") String title) {
-        return omdbClient.findMovieByTitle(title);
+        return omdbApi.findMovieByTitle(title);
     }
 }
@@ -0,0 +1,81 @@
+package com.example.controllers;
+
+import com.example.exceptions.AuthorNotFoundException;
+import com.example.exceptions.UserUnauthorizedException;
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.reactive.ReactiveAuthorService;
+import com.example.reactive.ReactiveConfiguration;
+import com.example.security.SecurityService;
+import com.example.services.AuthorService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The author endpoints of {@link AuthorController} on the non-blocking stack: the methods return a {@link Mono},
+ * so they run on the event loop and the database is accessed through R2DBC, without a thread per request in
+ * flight. Only started when {@code reactive.enabled} is true, next to the JDBC endpoints to compare both under
+ * the same load.
+ */
+@Controller("/reactive/authors")
+@Requires(property = ReactiveConfiguration.ENABLED, value = "true")
+public class ReactiveAuthorController {
+
+    private final ReactiveAuthorService authorService;
+    private final SecurityService securityService;
+
+    public ReactiveAuthorController(ReactiveAuthorService authorService, SecurityService securityService) {
+        this.authorService = authorService;
+        this.securityService = securityService;
+    }
+
+    @Operation(operationId = "createAuthorReactive",
+            summary = "Create a new author, without blocking",
+            description = "Same as createAuthor, without idempotency keys.")
+    @Post
+    public Mono<HttpResponse<Author>> createAuthor(@NotNull @Valid @Body CreateAuthorRequest createAuthorRequest) {
+        return authorService.saveAuthor(createAuthorRequest.getName())
+                .map(saved -> HttpResponse.<Author>status(AuthorController.status(saved)).body(saved.author()));
+    }
+
+    @Operation(operationId = "findAuthorByNameReactive",
+            summary = "Find an author by name, without blocking",
+            description = "Same as findAuthorByName.")
+    @Get("/by-name")
+    public Mono<Author> findAuthorByName(@NotBlank @QueryValue("author") String author,
+                                        @QueryValue("username") @Nullable String username,
+                                        @QueryValue(value = "offset", defaultValue = "0") @PositiveOrZero int offset,
+                                        @QueryValue("limit") @Nullable @Positive Integer limit) {
+        if (!securityService.canUserAccess(username)) {
+            return Mono.error(UserUnauthorizedException.instance());
+        }
+        return authorService.findAuthorByName(author, offset, limit != null ? limit : AuthorService.ALL_BOOKS)
+                .switchIfEmpty(Mono.error(AuthorNotFoundException::instance));
+    }
+
+    @Operation(operationId = "searchAuthorsReactive",
+            summary = "Search authors by name, without blocking",
+            description = "Same as searchAuthors.")
+    @Get("/search")
+    public Mono<List<AuthorMatch>> searchAuthors(@NotBlank @QueryValue("q") String query,
+                                                @QueryValue(value = "offset", defaultValue = "0") @PositiveOrZero int offset,
+                                                @QueryValue(value = "limit", defaultValue = "10") @Positive @Max(100) int limit) {
+        return authorService.searchAuthors(query, offset, limit);
+    }
+}
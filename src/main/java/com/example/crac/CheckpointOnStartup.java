@@ -0,0 +1,75 @@
+package com.example.crac;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+
+/**
+ * Warms the application up and takes a CRaC checkpoint once the server has started.
+ * <p>
+ * The warm-up sends {@code crac.warmup-iterations} rounds of requests over {@code crac.warmup-paths}
+ * to the application itself, which opens the Hikari connections and gets the hot paths
+ * JIT-compiled, then asks the JVM for a checkpoint. Responses are not checked: a 404 still exercises
+ * the request path. With {@code -XX:CRaCCheckpointTo} the JVM exits once
+ * the checkpoint has been written; restored instances continue after {@link Core#checkpointRestore()}.
+ */
+@Singleton
+@Requires(property = "crac.enabled", value = StringUtils.TRUE)
+@Requires(property = "crac.checkpoint-on-startup", value = StringUtils.TRUE)
+public class CheckpointOnStartup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointOnStartup.class);
+
+    private final CracConfiguration configuration;
+
+    public CheckpointOnStartup(CracConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @EventListener
+    void onStartup(ServerStartupEvent event) {
+        URL url = event.getSource().getURL();
+        // Do not block the startup sequence: the checkpoint has to happen after it completes
+        Thread.ofPlatform()
+                .name("crac-checkpoint")
+                .start(() -> warmupAndCheckpoint(url));
+    }
+
+    private void warmupAndCheckpoint(URL url) {
+        long start = System.nanoTime();
+        // Closed before the checkpoint so it does not leave open sockets behind
+        try (HttpClient client = HttpClient.create(url)) {
+            BlockingHttpClient blocking = client.toBlocking();
+            for (int i = 0; i < configuration.getWarmupIterations(); i++) {
+                for (String path : configuration.getWarmupPaths()) {
+                    try {
+                        blocking.exchange(HttpRequest.GET(path));
+                    } catch (HttpClientException e) {
+                        LOG.trace("Warm-up request to {} failed", path, e);
+                    }
+                }
+            }
+        }
+        LOG.info("Warm-up finished in {} ms, taking checkpoint", (System.nanoTime() - start) / 1_000_000);
+
+        try {
+            Core.checkpointRestore();
+            LOG.info("Restored from checkpoint");
+        } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+            LOG.error("Checkpoint failed", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.crac;
+
+import com.example.omdb.OmdbClient;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.http.client.HttpClientRegistry;
+import io.micronaut.http.server.netty.NettyEmbeddedServer;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Singleton;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closes and reopens every socket the application holds around a CRaC checkpoint: the HTTP server,
+ * the OMDB client connections and the Hikari connection pools.
+ * <p>
+ * The CRaC context runs {@code beforeCheckpoint} in reverse registration order and
+ * {@code afterRestore} in registration order, so the pools are registered first: they are closed
+ * last and reopened before the server accepts requests again. On a JVM without CRaC support the
+ * registration is a no-op.
+ * <p>
+ * Hikari pools need {@code allow-pool-suspension: true}, otherwise the housekeeper would reopen the
+ * evicted connections before the checkpoint is taken.
+ */
+@Singleton
+@Requires(property = "crac.enabled", value = StringUtils.TRUE)
+public class CheckpointResources {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointResources.class);
+
+    private final List<DataSource> dataSources;
+    private final HttpClientRegistry<?> httpClientRegistry;
+    private final BeanContext beanContext;
+    private final NettyEmbeddedServer server;
+
+    // The CRaC context only keeps weak references to the registered resources
+    private final List<Resource> resources = new ArrayList<>();
+
+    public CheckpointResources(List<DataSource> dataSources,
+                               HttpClientRegistry<?> httpClientRegistry,
+                               BeanContext beanContext,
+                               NettyEmbeddedServer server) {
+        this.dataSources = dataSources;
+        this.httpClientRegistry = httpClientRegistry;
+        this.beanContext = beanContext;
+        this.server = server;
+    }
+
+    @EventListener
+    void register(StartupEvent event) {
+        for (DataSource dataSource : dataSources) {
+            resources.add(new DataSourceResource(dataSource));
+        }
+        resources.add(new HttpClientResource());
+        resources.add(new ServerResource());
+        resources.forEach(Core.getGlobalContext()::register);
+    }
+
+    /**
+     * The registered resources, in registration order.
+     *
+     * @return The resources
+     */
+    List<Resource> getResources() {
+        return resources;
+    }
+
+    private static final class DataSourceResource implements Resource {
+
+        private final DataSource dataSource;
+
+        DataSourceResource(DataSource dataSource) {
+            // The injected datasource only hands out the connection of the current transaction
+            this.dataSource = DelegatingDataSource.unwrapDataSource(dataSource);
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws SQLException {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return;
+            }
+            if (hikari.isAllowPoolSuspension()) {
+                pool.suspendPool();
+            } else {
+                LOG.warn("Pool {} does not allow suspension, a connection may be reopened before the checkpoint",
+                        hikari.getPoolName());
+            }
+            pool.softEvictConnections();
+            LOG.info("Evicted the connections of pool {}, {} still open", hikari.getPoolName(),
+                    pool.getTotalConnections());
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) throws SQLException {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null && hikari.isAllowPoolSuspension()) {
+                pool.resumePool();
+            }
+            // Open one connection eagerly so the first request does not pay for the handshake
+            try (Connection ignored = dataSource.getConnection()) {
+                LOG.info("Resumed connection pool");
+            }
+        }
+    }
+
+    private final class HttpClientResource implements Resource {
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            // The declarative client asks the registry for its HTTP client on every call, so the
+            // disposed client (and its pooled connections) is recreated on the first call after restore
+            beanContext.findBeanDefinition(OmdbClient.class)
+                    .ifPresent(definition -> httpClientRegistry.disposeClient(definition.getAnnotationMetadata()));
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            // nothing to do, see beforeCheckpoint
+        }
+    }
+
+    private final class ServerResource implements Resource {
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            server.stopServerOnly();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            server.start();
+        }
+    }
+}
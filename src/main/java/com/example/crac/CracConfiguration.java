@@ -0,0 +1,68 @@
+package com.example.crac;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Checkpoint/restore (CRaC) configuration.
+ * <p>
+ * See {@code application-crac.yml} for the environment the CRaC image starts with.
+ */
+@ConfigurationProperties("crac")
+public class CracConfiguration {
+
+    /**
+     * Whether the checkpoint/restore hooks are registered.
+     */
+    private boolean enabled;
+
+    /**
+     * Whether the application warms itself up and takes a checkpoint once the server has started.
+     */
+    private boolean checkpointOnStartup;
+
+    /**
+     * Number of warm-up rounds over {@link #warmupPaths} before the checkpoint.
+     */
+    private int warmupIterations = 2000;
+
+    /**
+     * Paths requested on the application itself to trigger JIT compilation of the hot paths. The movie
+     * paths are left out: they call the real, rate-limited OMDB API, from every instance taking a checkpoint.
+     */
+    private List<String> warmupPaths = List.of(
+            "/authors/by-name?author=Stephen%20King&username=admin");
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isCheckpointOnStartup() {
+        return checkpointOnStartup;
+    }
+
+    public void setCheckpointOnStartup(boolean checkpointOnStartup) {
+        this.checkpointOnStartup = checkpointOnStartup;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public List<String> getWarmupPaths() {
+        return warmupPaths;
+    }
+
+    public void setWarmupPaths(List<String> warmupPaths) {
+        this.warmupPaths = warmupPaths;
+    }
+}
@@ -13,7 +13,13 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
-/** Book entity. */
+/**
+ * Book entity.
+ *
+ * <p>The books of an author are always read in (title, id) order, which the {@code
+ * book_author_id_title_idx} index created by {@code V2__author_and_book_indexes.sql} serves without a
+ * sort step, including limit/offset pages of a large bibliography.
+ */
 @MappedEntity(value = "book", schema = "public")
 public record BookEntity(
     @Id @GeneratedValue(value = Type.IDENTITY) @Nullable Long id,
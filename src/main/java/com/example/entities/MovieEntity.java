@@ -0,0 +1,24 @@
+package com.example.entities;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.MappedEntity;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * Movie fetched from OMDB, created by {@code V7__movie.sql}.
+ *
+ * <p>A {@code null} title records that OMDB has no movie with that title, so it is not asked again until the
+ * entry is stale. The requested title, added by {@code V10__movie_requested_title.sql}, is the one OMDB was last
+ * asked for.
+ */
+@MappedEntity(value = "movie", schema = "public")
+public record MovieEntity(
+    @Id @NotBlank String titleKey,
+    @Nullable String title,
+    @Nullable String requestedTitle,
+    @Nullable String year,
+    @NotNull Instant fetchedAt,
+    long hits) {}
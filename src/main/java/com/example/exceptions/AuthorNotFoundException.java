@@ -0,0 +1,24 @@
+package com.example.exceptions;
+
+/**
+ * Exception thrown when the requested author doesn't exist.
+ */
+public class AuthorNotFoundException extends LightweightException {
+
+    private static final AuthorNotFoundException INSTANCE = new AuthorNotFoundException(false);
+
+    public AuthorNotFoundException() {
+        super("Author not found");
+    }
+
+    private AuthorNotFoundException(boolean stackTrace) {
+        super("Author not found", stackTrace);
+    }
+
+    /**
+     * @return The preallocated exception, or a new one capturing its stack trace if stack traces are enabled
+     */
+    public static AuthorNotFoundException instance() {
+        return isStackTraces() ? new AuthorNotFoundException() : INSTANCE;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exceptions;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import jakarta.inject.Singleton;
+
+/**
+ * Handles {@link AuthorNotFoundException} and returns 404.
+ */
+@Singleton
+public class AuthorNotFoundExceptionHandler implements ExceptionHandler<AuthorNotFoundException, HttpResponse<byte[]>> {
+
+    @Override
+    public HttpResponse<byte[]> handle(HttpRequest request, AuthorNotFoundException exception) {
+        return ErrorResponses.authorNotFound();
+    }
+}
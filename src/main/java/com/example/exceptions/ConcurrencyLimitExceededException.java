@@ -0,0 +1,11 @@
+package com.example.exceptions;
+
+/**
+ * Exception thrown when a call is refused because too many calls to the same dependency are in flight.
+ */
+public class ConcurrencyLimitExceededException extends LightweightException {
+
+    public ConcurrencyLimitExceededException(String dependency) {
+        super("Too many calls in flight to " + dependency);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.exceptions;
+
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error responses whose body never changes, serialized once.
+ * <p>
+ * A response is mutable (filters add headers to it), so a new one is built for every request, but it only
+ * references the shared body: nothing is serialized or allocated per request besides the response itself.
+ * </p>
+ */
+final class ErrorResponses {
+
+    private static final byte[] UNAUTHORIZED = json("Unauthorized");
+    private static final byte[] AUTHOR_NOT_FOUND = json("Author not found");
+
+    private ErrorResponses() {
+    }
+
+    static HttpResponse<byte[]> unauthorized() {
+        return of(HttpStatus.UNAUTHORIZED, UNAUTHORIZED);
+    }
+
+    static HttpResponse<byte[]> authorNotFound() {
+        return of(HttpStatus.NOT_FOUND, AUTHOR_NOT_FOUND);
+    }
+
+    private static HttpResponse<byte[]> of(HttpStatus status, byte[] body) {
+        return HttpResponse.<byte[]>status(status)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .body(body);
+    }
+
+    // Same shape as a JsonError without links, the messages are constants without characters to escape
+    private static byte[] json(String message) {
+        return ("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.exceptions;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Context;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stack-trace capture of the {@link LightweightException}s. Created with the context, so it applies before the
+ * first request, and reset when the context shuts down, so it does not outlive the context in the JVM.
+ */
+@Context
+@ConfigurationProperties(ExceptionsConfiguration.PREFIX)
+public class ExceptionsConfiguration {
+
+    public static final String PREFIX = "exceptions";
+
+    /**
+     * Whether the lightweight exceptions capture their stack trace, to find where one is thrown while debugging.
+     */
+    private boolean stackTraces;
+
+    public boolean isStackTraces() {
+        return stackTraces;
+    }
+
+    public void setStackTraces(boolean stackTraces) {
+        this.stackTraces = stackTraces;
+        LightweightException.setStackTraces(stackTraces);
+    }
+
+    @PreDestroy
+    void close() {
+        if (stackTraces) {
+            LightweightException.setStackTraces(false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.exceptions;
+
+/**
+ * Base of the exceptions thrown on hot error paths, where the exception only carries a status to its handler.
+ * <p>
+ * Filling in the stack trace walks every frame of the request thread, which costs far more than building the
+ * error response. Unless {@code exceptions.stack-traces} is enabled (see {@link ExceptionsConfiguration}), these
+ * exceptions have neither a stack trace nor suppressed exceptions. The most frequent ones, thrown at the rate
+ * scanners and misconfigured clients send requests, are also preallocated: see their {@code instance()}.
+ * </p>
+ */
+public abstract class LightweightException extends RuntimeException {
+
+    private static volatile boolean stackTraces;
+
+    protected LightweightException(String message) {
+        this(message, stackTraces);
+    }
+
+    /**
+     * @param message    The message
+     * @param stackTrace Whether to capture the stack trace, {@code false} for the preallocated instances
+     */
+    protected LightweightException(String message, boolean stackTrace) {
+        super(message, null, false, stackTrace);
+    }
+
+    /**
+     * @return Whether the exceptions created from now on capture their stack trace
+     */
+    public static boolean isStackTraces() {
+        return stackTraces;
+    }
+
+    /**
+     * @param stackTraces Whether the exceptions created from now on capture their stack trace
+     */
+    static void setStackTraces(boolean stackTraces) {
+        LightweightException.stackTraces = stackTraces;
+    }
+}
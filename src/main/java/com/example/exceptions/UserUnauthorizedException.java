@@ -3,5 +3,22 @@ package com.example.exceptions;
 /**
  * Exception thrown when user is unauthorized.
  */
-public class UserUnauthorizedException extends RuntimeException {
+public class UserUnauthorizedException extends LightweightException {
+
+    private static final UserUnauthorizedException INSTANCE = new UserUnauthorizedException(false);
+
+    public UserUnauthorizedException() {
+        super("Unauthorized");
+    }
+
+    private UserUnauthorizedException(boolean stackTrace) {
+        super("Unauthorized", stackTrace);
+    }
+
+    /**
+     * @return The preallocated exception, or a new one capturing its stack trace if stack traces are enabled
+     */
+    public static UserUnauthorizedException instance() {
+        return isStackTraces() ? new UserUnauthorizedException() : INSTANCE;
+    }
 }
@@ -2,7 +2,6 @@ package com.example.exceptions;
 
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
-import io.micronaut.http.hateoas.JsonError;
 import io.micronaut.http.server.exceptions.ExceptionHandler;
 import jakarta.inject.Singleton;
 
@@ -10,10 +9,10 @@ import jakarta.inject.Singleton;
  * Handles {@link UserUnauthorizedException} and returns 401.
  */
 @Singleton
-public class UserUnauthorizedExceptionHandler implements ExceptionHandler<UserUnauthorizedException, HttpResponse<JsonError>> {
+public class UserUnauthorizedExceptionHandler implements ExceptionHandler<UserUnauthorizedException, HttpResponse<byte[]>> {
 
     @Override
-    public HttpResponse<JsonError> handle(HttpRequest request, UserUnauthorizedException exception) {
-        return HttpResponse.unauthorized();
+    public HttpResponse<byte[]> handle(HttpRequest request, UserUnauthorizedException exception) {
+        return ErrorResponses.unauthorized();
     }
 }
@@ -0,0 +1,11 @@
+package com.example.exceptions;
+
+/**
+ * Exception thrown when the write-behind queue is full and can't accept more books.
+ */
+public class WriteBehindQueueFullException extends LightweightException {
+
+    public WriteBehindQueueFullException() {
+        super("Write-behind queue full");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.exceptions;
+
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import jakarta.inject.Singleton;
+
+/**
+ * Handles {@link WriteBehindQueueFullException} and returns 503, asking the client to retry a second later.
+ */
+@Singleton
+public class WriteBehindQueueFullExceptionHandler implements ExceptionHandler<WriteBehindQueueFullException, HttpResponse<JsonError>> {
+
+    @Override
+    public HttpResponse<JsonError> handle(HttpRequest request, WriteBehindQueueFullException exception) {
+        return HttpResponse.<JsonError>status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new JsonError("Too many books waiting to be written, retry later"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.idempotency;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the responses kept for the requests sent with an {@code Idempotency-Key} header.
+ */
+@ConfigurationProperties(IdempotencyConfiguration.PREFIX)
+public class IdempotencyConfiguration {
+
+    public static final String PREFIX = "idempotency";
+    public static final String STORE = PREFIX + ".store";
+
+    /**
+     * Where the responses are kept: {@code memory} (per instance) or {@code jdbc} (shared by all the instances).
+     */
+    private String store = InMemoryIdempotencyStore.NAME;
+
+    /**
+     * How long a response is replayed for. Retries after that execute the request again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of responses kept by the {@code memory} store, the oldest are evicted first.
+     */
+    private int maxEntries = 10_000;
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
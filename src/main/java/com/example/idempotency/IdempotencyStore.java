@@ -0,0 +1,58 @@
+package com.example.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Keeps the responses of the requests sent with an {@code Idempotency-Key} header, so that a retry gets the
+ * original response instead of executing the request again. Responses expire after
+ * {@link IdempotencyConfiguration#getTtl()}.
+ * <p>
+ * A request first {@link #reserve(String, String) reserves} its key, so that a retry sent while it is still in
+ * progress finds the reservation instead of executing the request a second time.
+ * </p>
+ * <p>
+ * Select the implementation with {@code idempotency.store}.
+ * </p>
+ */
+public interface IdempotencyStore {
+
+    /**
+     * The header carrying the key.
+     */
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Find the response of a previous request.
+     *
+     * @param key The idempotency key
+     * @return The response if it has not expired, {@link StoredResponse#isInProgress()} if the request is in progress
+     */
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * Reserve a key for a request about to be executed, atomically: of concurrent requests with the same key, only
+     * one gets it. The request then {@link #save(String, StoredResponse) saves} its response, or
+     * {@link #release(String) releases} the key if it fails.
+     *
+     * @param key         The idempotency key
+     * @param fingerprint Identifies the request
+     * @return Empty if the key was reserved, otherwise the response of the request that already used it,
+     * {@link StoredResponse#isInProgress()} if that request is still in progress
+     */
+    Optional<StoredResponse> reserve(String key, String fingerprint);
+
+    /**
+     * Remove the reservation of a key by a request that failed, so that it can be retried. A saved response is kept.
+     *
+     * @param key The idempotency key
+     */
+    void release(String key);
+
+    /**
+     * Keep a response, replacing the reservation of the key. If the key already has a response, the first one is kept.
+     *
+     * @param key      The idempotency key
+     * @param response The response
+     */
+    void save(String key, StoredResponse response);
+}
@@ -0,0 +1,99 @@
+package com.example.idempotency;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} kept in the memory of this instance, the default.
+ * <p>
+ * The entries are kept in insertion order, which is also their expiry order as they all live for the same
+ * time: expired entries are evicted from the head on every save, and the oldest one when the store is full.
+ * A reservation is an entry in progress, moved to the tail when its response is saved.
+ * </p>
+ */
+@Singleton
+@Requires(property = IdempotencyConfiguration.STORE, value = InMemoryIdempotencyStore.NAME, defaultValue = InMemoryIdempotencyStore.NAME)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    static final String NAME = "memory";
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(IdempotencyConfiguration configuration) {
+        this.ttlNanos = configuration.getTtl().toNanos();
+        this.maxEntries = configuration.getMaxEntries();
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || isExpired(entry, System.nanoTime())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.response());
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> reserve(String key, String fingerprint) {
+        long now = System.nanoTime();
+        evict(now);
+        Entry existing = entries.putIfAbsent(key, new Entry(StoredResponse.inProgress(fingerprint), now));
+        return existing == null ? Optional.empty() : Optional.of(existing.response());
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry existing = entries.get(key);
+        if (existing != null && existing.response().isInProgress()) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized void save(String key, StoredResponse response) {
+        long now = System.nanoTime();
+        Entry existing = entries.get(key);
+        if (existing != null && !isExpired(existing, now) && !existing.response().isInProgress()) {
+            return;
+        }
+        // Removed first, so that the entry moves to the tail with its new creation time
+        entries.remove(key);
+        evict(now);
+        entries.put(key, new Entry(response, now));
+    }
+
+    /**
+     * Evict the expired entries, and the oldest one if there is no room for another.
+     */
+    private void evict(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (!isExpired(eldest, now) && entries.size() < maxEntries) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return The number of entries, including the expired ones not evicted yet
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.created() > ttlNanos;
+    }
+
+    private record Entry(StoredResponse response, long created) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.idempotency;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.TransactionOperations;
+import jakarta.inject.Singleton;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} in the {@code idempotency_key} table, shared by all the instances of the
+ * application. Select it with {@code idempotency.store=jdbc}. Expired rows are deleted every hour.
+ */
+@Singleton
+@Requires(property = IdempotencyConfiguration.STORE, value = JdbcIdempotencyStore.NAME)
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    static final String NAME = "jdbc";
+
+    // Takes over an expired row only
+    private static final String INSERT = """
+            INSERT INTO idempotency_key (key, fingerprint, status, body, date_created) VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (key) DO UPDATE
+            SET fingerprint = excluded.fingerprint, status = excluded.status, body = excluded.body,
+                date_created = excluded.date_created
+            WHERE idempotency_key.date_created <= ?""";
+
+    // A response also replaces the reservation of its request
+    private static final String SAVE = INSERT + " OR idempotency_key.status = " + StoredResponse.IN_PROGRESS;
+
+    private final JdbcOperations jdbcOperations;
+    private final TransactionOperations<Connection> transactionOperations;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(JdbcOperations jdbcOperations,
+                                TransactionOperations<Connection> transactionOperations,
+                                IdempotencyConfiguration configuration) {
+        this.jdbcOperations = jdbcOperations;
+        this.transactionOperations = transactionOperations;
+        this.ttl = configuration.getTtl();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return transactionOperations.executeRead(status -> jdbcOperations.prepareStatement(
+                "SELECT fingerprint, status, body FROM idempotency_key WHERE key = ? AND date_created > ?",
+                statement -> {
+                    statement.setString(1, key);
+                    statement.setTimestamp(2, expiredBefore());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return Optional.empty();
+                        }
+                        return Optional.of(new StoredResponse(
+                                resultSet.getString(1), resultSet.getInt(2), resultSet.getBytes(3)));
+                    }
+                }));
+    }
+
+    @Override
+    public Optional<StoredResponse> reserve(String key, String fingerprint) {
+        StoredResponse reservation = StoredResponse.inProgress(fingerprint);
+        while (true) {
+            // The unique key makes the insert atomic: a concurrent request with the same key conflicts and finds the
+            // reservation
+            if (upsert(INSERT, key, reservation) > 0) {
+                return Optional.empty();
+            }
+            Optional<StoredResponse> existing = find(key);
+            if (existing.isPresent()) {
+                return existing;
+            }
+            // Released or expired in between, try again
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(
+                "DELETE FROM idempotency_key WHERE key = ? AND status = ?", statement -> {
+                    statement.setString(1, key);
+                    statement.setInt(2, StoredResponse.IN_PROGRESS);
+                    return statement.executeUpdate();
+                }));
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        upsert(SAVE, key, response);
+    }
+
+    /**
+     * @return The number of rows inserted or replaced
+     */
+    private int upsert(String sql, String key, StoredResponse response) {
+        return transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, key);
+            statement.setString(2, response.fingerprint());
+            statement.setInt(3, response.status());
+            statement.setBytes(4, response.body());
+            statement.setTimestamp(5, expiredBefore());
+            return statement.executeUpdate();
+        }));
+    }
+
+    /**
+     * Delete the expired responses.
+     */
+    @Scheduled(fixedDelay = "1h")
+    void deleteExpired() {
+        transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(
+                "DELETE FROM idempotency_key WHERE date_created <= ?", statement -> {
+                    statement.setTimestamp(1, expiredBefore());
+                    return statement.executeUpdate();
+                }));
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minus(ttl));
+    }
+}
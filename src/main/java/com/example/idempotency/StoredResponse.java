@@ -0,0 +1,32 @@
+package com.example.idempotency;
+
+/**
+ * The response of a request sent with an {@code Idempotency-Key} header, or the reservation of the key by a request
+ * still in progress.
+ *
+ * @param fingerprint Identifies the request the key was first used with, to refuse reusing it for another one
+ * @param status      The HTTP status code, {@link #IN_PROGRESS} for a reservation
+ * @param body        The serialized body
+ */
+public record StoredResponse(String fingerprint, int status, byte[] body) {
+
+    /**
+     * The status of a request that has no response yet.
+     */
+    public static final int IN_PROGRESS = 0;
+
+    /**
+     * @param fingerprint Identifies the request
+     * @return The reservation of a key by the request
+     */
+    public static StoredResponse inProgress(String fingerprint) {
+        return new StoredResponse(fingerprint, IN_PROGRESS, new byte[0]);
+    }
+
+    /**
+     * @return Whether the request is still in progress
+     */
+    public boolean isInProgress() {
+        return status == IN_PROGRESS;
+    }
+}
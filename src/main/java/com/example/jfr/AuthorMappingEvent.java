@@ -0,0 +1,48 @@
+package com.example.jfr;
+
+import com.example.model.Author;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.function.Supplier;
+
+/**
+ * The mapping of an author and their books to the {@code Author} DTO, including the read of the books when the
+ * mapping reads them.
+ */
+@Name(AuthorMappingEvent.NAME)
+@Label("Author Mapping")
+@Category({"Demo", "Mapping"})
+@Description("The mapping of an author and their books to the Author DTO, reading the books if needed")
+@Threshold("1 ms")
+@StackTrace(false)
+public class AuthorMappingEvent extends Event {
+
+    public static final String NAME = "com.example.AuthorMapping";
+
+    @Label("Books")
+    public int books;
+
+    /**
+     * Map an author, recording the event if the mapping took longer than the threshold.
+     *
+     * @param mapping The mapping
+     * @return The author
+     */
+    public static Author record(Supplier<Author> mapping) {
+        AuthorMappingEvent event = new AuthorMappingEvent();
+        event.begin();
+        Author author = mapping.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.books = author.getBooks().size();
+            event.commit();
+        }
+        return author;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * An access check of {@code SecurityService}. Disabled unless the recording settings enable it: there is one
+ * per request, and it takes nanoseconds.
+ */
+@Name(AuthorizationEvent.NAME)
+@Label("Authorization Check")
+@Category({"Demo", "Security"})
+@Description("An access check of the security service")
+@Enabled(false)
+@Threshold("0 ms")
+@StackTrace(false)
+public class AuthorizationEvent extends Event {
+
+    public static final String NAME = "com.example.Authorization";
+
+    // Declared first: JfrSummary groups the events by their first text or boolean field
+    @Label("Granted")
+    public boolean granted;
+
+    @Label("User")
+    public String user;
+}
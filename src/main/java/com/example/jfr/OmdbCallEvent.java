@@ -0,0 +1,41 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A call to the OMDB API, recorded by {@code OmdbClient}.
+ */
+@Name(OmdbCallEvent.NAME)
+@Label("OMDB Call")
+@Category({"Demo", "OMDB"})
+@Description("A movie lookup on the OMDB API")
+@Threshold("0 ms")
+@StackTrace(false)
+public class OmdbCallEvent extends Event {
+
+    public static final String NAME = "com.example.OmdbCall";
+
+    public static final String FOUND = "found";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ERROR = "error";
+
+    // Declared first: JfrSummary groups the events by their first text field
+    @Label("Outcome")
+    @Description("found, not_found or error")
+    public String outcome;
+
+    @Label("Title")
+    public String title;
+
+    @Label("Response Size")
+    @Description("The Content-Length of the response, -1 when unknown")
+    @DataAmount
+    public long bytes;
+}
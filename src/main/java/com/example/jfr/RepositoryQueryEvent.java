@@ -0,0 +1,31 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A call to a repository method, recorded by {@link RepositoryQueryInterceptor}.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Category({"Demo", "Database"})
+@Description("A call to a repository method, from the connection request to the mapped result")
+@Threshold("10 ms")
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    public static final String NAME = "com.example.RepositoryQuery";
+
+    @Label("Method")
+    @Description("The repository and the method called, e.g. AuthorRepository.findByName")
+    String method;
+
+    @Label("Rows")
+    @Description("The entities or DTOs returned, -1 when the call failed")
+    int rows;
+}
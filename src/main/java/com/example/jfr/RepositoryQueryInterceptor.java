@@ -0,0 +1,78 @@
+package com.example.jfr;
+
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.inject.ExecutableMethod;
+import jakarta.inject.Singleton;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the calls to the repositories annotated with {@link RecordQueries}.
+ * <p>
+ * Only the methods implemented by Micronaut Data are recorded: a default method calling other queries would
+ * count their time twice. When no recording enables the event, the only cost left is the {@code shouldCommit()}
+ * check, the event itself is not allocated once the JIT compiled the interceptor.
+ * </p>
+ */
+@Singleton
+@InterceptorBean(RecordQueries.class)
+public class RepositoryQueryInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final ConcurrentHashMap<ExecutableMethod<?, ?>, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!context.getExecutableMethod().isAbstract()) {
+            return context.proceed();
+        }
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        int rows = -1;
+        try {
+            Object result = context.proceed();
+            rows = rows(result);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = names.computeIfAbsent(context.getExecutableMethod(), method -> name(context));
+                event.rows = rows;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @param result The result of a repository method
+     * @return The number of entities or DTOs it holds, 1 for a single value or a count
+     */
+    static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return 1;
+    }
+
+    /**
+     * The repository interface rather than the declaring one, so {@code save} of the author and book
+     * repositories are told apart.
+     */
+    private static String name(MethodInvocationContext<Object, Object> context) {
+        Class<?> repository = context.getDeclaringType();
+        for (Class<?> type : context.getTarget().getClass().getInterfaces()) {
+            if (type.isAnnotationPresent(RecordQueries.class)) {
+                repository = type;
+                break;
+            }
+        }
+        return repository.getSimpleName() + '.' + context.getMethodName();
+    }
+}
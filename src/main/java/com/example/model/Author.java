@@ -13,7 +13,7 @@ import java.util.List;
 public class Author {
 
     @Schema(required = true, description = "The author id", example = "42")
-    private final Long id;
+    private final long id;
 
     @Schema(required = true, description = "The author name", example = "Stephen King")
     private final String name;
@@ -21,13 +21,13 @@ public class Author {
     @JsonInclude
     private final List<Book> books;
 
-    public Author(Long id, String name, List<Book> books) {
+    public Author(long id, String name, List<Book> books) {
         this.id = id;
         this.name = name;
         this.books = books;
     }
 
-    public Long getId() {
+    public long getId() {
         return id;
     }
 
@@ -0,0 +1,38 @@
+package com.example.model;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * An author without their books, as found by the author search or a lookup that does not expand the books.
+ */
+@Serdeable
+public class AuthorMatch {
+
+    @Schema(required = true, description = "The author id", example = "42")
+    private final long id;
+
+    @Schema(required = true, description = "The author name", example = "Stephen King")
+    private final String name;
+
+    public AuthorMatch(long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorMatch{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.model;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * The number of books and pages of an author, maintained as the books are written.
+ */
+@Serdeable
+public class AuthorStats {
+
+    @Schema(required = true, description = "The author id", example = "42")
+    private final long authorId;
+
+    @Schema(required = true, description = "The number of books of the author", example = "65")
+    private final long bookCount;
+
+    @Schema(required = true, description = "The number of pages of all their books", example = "32000")
+    private final long totalPages;
+
+    public AuthorStats(long authorId, long bookCount, long totalPages) {
+        this.authorId = authorId;
+        this.bookCount = bookCount;
+        this.totalPages = totalPages;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public long getBookCount() {
+        return bookCount;
+    }
+
+    public long getTotalPages() {
+        return totalPages;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorStats{" +
+                "authorId=" + authorId +
+                ", bookCount=" + bookCount +
+                ", totalPages=" + totalPages +
+                '}';
+    }
+}
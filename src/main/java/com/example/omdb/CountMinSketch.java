@@ -0,0 +1,78 @@
+package com.example.omdb;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate count of how often each key was seen recently, in a fixed amount of memory.
+ * <p>
+ * Each key increments one counter in each of four rows, picked by a different hash per row, and its
+ * frequency is the smallest of its four counters: collisions can only make a key look more frequent, never
+ * less. Once the sketch has counted ten times its width, every counter is halved, so keys that were popular
+ * a while ago fade out in favour of the current ones.
+ * </p>
+ */
+public final class CountMinSketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb6c4d3e5, 0xc2b2ae35, 0x85ebca6b};
+
+    private final int width;
+    private final int sampleSize;
+    private final AtomicIntegerArray counters;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedKeys The number of keys expected to be tracked, which sizes the rows
+     */
+    public CountMinSketch(int expectedKeys) {
+        this.width = Integer.highestOneBit(Math.max(expectedKeys, 8) - 1) << 1;
+        this.sampleSize = 10 * width;
+        this.counters = new AtomicIntegerArray(SEEDS.length * width);
+    }
+
+    /**
+     * Count one more occurrence of a key.
+     *
+     * @param key The key
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < SEEDS.length; row++) {
+            counters.incrementAndGet(row * width + index(hash, row));
+        }
+        if (additions.incrementAndGet() == sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The estimated number of recent occurrences of the key, never less than the actual number
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, counters.get(row * width + index(hash, row)));
+        }
+        return frequency;
+    }
+
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 17;
+        return h & (width - 1);
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
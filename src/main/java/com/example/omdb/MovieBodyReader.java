@@ -0,0 +1,103 @@
+package com.example.omdb;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.type.Headers;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Consumes;
+import io.micronaut.http.body.MessageBodyReader;
+import io.micronaut.http.codec.CodecException;
+import io.micronaut.json.body.JsonMessageHandler;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the OMDB responses into a {@link Movie} with a streaming parser.
+ * <p>
+ * A response carries dozens of fields (plot, actors, ratings...) of which only {@code Title} and {@code Year} are
+ * kept. Instead of binding the whole document, the parser reads the tokens straight from the response buffer,
+ * skips the values of the other fields without building them, and stops as soon as both fields are found: OMDB
+ * sends them first, so the rest of the body is never tokenized.
+ * </p>
+ * It runs before the generic JSON handler, for the {@link Movie} type only.
+ */
+@Singleton
+@Order(JsonMessageHandler.ORDER - 1)
+@Consumes({MediaType.APPLICATION_JSON, MediaType.TEXT_JSON})
+public class MovieBodyReader implements MessageBodyReader<Movie> {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    @Override
+    public boolean isReadable(Argument<Movie> type, MediaType mediaType) {
+        return type.getType() == Movie.class;
+    }
+
+    @Override
+    public Movie read(Argument<Movie> type, MediaType mediaType, Headers httpHeaders, InputStream inputStream) {
+        try {
+            return decode(inputStream);
+        } catch (IOException e) {
+            throw new CodecException("Error decoding the OMDB response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decode an OMDB response. The stream is not closed.
+     *
+     * @param inputStream The JSON document
+     * @return The movie, without title when OMDB did not find it
+     * @throws IOException if the document is not a JSON object
+     */
+    public static Movie decode(InputStream inputStream) throws IOException {
+        try (JsonParser parser = JSON.createParser(inputStream)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * Decode an OMDB response.
+     *
+     * @param bytes The JSON document
+     * @return The movie, without title when OMDB did not find it
+     * @throws IOException if the document is not a JSON object
+     */
+    public static Movie decode(byte[] bytes) throws IOException {
+        try (JsonParser parser = JSON.createParser(bytes)) {
+            return decode(parser);
+        }
+    }
+
+    private static Movie decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new CodecException("Expected a JSON object, got " + parser.currentToken());
+        }
+        String title = null;
+        String year = null;
+        boolean hasTitle = false;
+        boolean hasYear = false;
+        while (!(hasTitle && hasYear) && parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!value.isScalarValue()) {
+                // Ratings and the like: jump to the end of the subtree without building it
+                parser.skipChildren();
+            } else if ("Title".equals(name)) {
+                title = parser.getValueAsString();
+                hasTitle = true;
+            } else if ("Year".equals(name)) {
+                year = parser.getValueAsString();
+                hasYear = true;
+            }
+        }
+        return new Movie(title, year);
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.omdb;
+
+import com.example.entities.MovieEntity;
+import com.example.ratelimit.TokenBucket;
+import com.example.repositories.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.propagation.PropagatedContext;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.TransactionOperations;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import jakarta.validation.constraints.NotBlank;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link OmdbApi} that keeps the OMDB results in the {@code movie} table, so they survive restarts, and the most
+ * requested ones in memory.
+ * <p>
+ * A movie is served from the store for {@code ttl}. For {@code max-stale} after that it is still served, while a
+ * background task fetches it again (stale-while-revalidate); older than that, or unknown, it is fetched before
+ * answering. Concurrent requests of a title share a single OMDB call, and a stored movie is served when OMDB
+ * fails. At startup the {@code hot-entries} most requested movies are loaded into memory, so a new instance
+ * does not start by asking OMDB for all of them.
+ * </p>
+ * <p>
+ * The requests of each title are also counted in a {@link CountMinSketch}, and the popular movies in memory are
+ * fetched again once they are {@code refresh-after} old, before their ttl (refresh-ahead): their callers are
+ * always served from memory. The refreshes run on their own small pool, most popular first, within a global
+ * budget of {@code refresh-rate} per second that keeps them from using up the OMDB quota.
+ * </p>
+ * <p>
+ * Titles are looked up by their {@link TitleNormalizer normalized} form, and a movie is stored under the
+ * normalized form of the title OMDB returned for it. When that differs from the requested one, the requested one
+ * is recorded as an alias in the {@code movie_alias} table, so that every variant OMDB resolves to the same
+ * movie shares one entry, and one OMDB call.
+ * </p>
+ * Metrics: {@code movie_store.requests}, tagged with {@code result} {@code fresh}, {@code stale} or {@code miss},
+ * and {@code movie_store.refreshes}, tagged with {@code result} {@code scheduled} or {@code over_budget}.
+ */
+@Singleton
+@Primary
+@Requires(property = MovieStoreConfiguration.ENABLED, value = "true")
+public class MovieStore implements OmdbApi {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MovieStore.class);
+
+    private static final String UPSERT = """
+            INSERT INTO movie (title_key, title, requested_title, year, fetched_at) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (title_key) DO UPDATE
+            SET title = excluded.title, requested_title = excluded.requested_title, year = excluded.year,
+                fetched_at = excluded.fetched_at""";
+
+    private static final String UPSERT_ALIAS = """
+            INSERT INTO movie_alias (alias_key, title_key) VALUES (?, ?)
+            ON CONFLICT (alias_key) DO UPDATE SET title_key = excluded.title_key""";
+
+    private static final String ADD_HITS = "UPDATE movie SET hits = hits + ? WHERE title_key = ?";
+
+    private final OmdbClient omdbClient;
+    private final MovieRepository movieRepository;
+    private final JdbcOperations jdbcOperations;
+    private final TransactionOperations<Connection> transactionOperations;
+    private final ExecutorService executor;
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final int hotEntries;
+    private final Duration refreshAfter;
+    private final int refreshMinRequests;
+    private final Map<String, MovieEntity> hot;
+    // guarded by hot
+    private final Map<String, String> aliases;
+    private final CountMinSketch frequencies;
+    private final TokenBucket refreshBudget;
+    private final ThreadPoolExecutor refresher;
+    private final ConcurrentHashMap<String, CompletableFuture<MovieEntity>> fetches = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter miss;
+    private final Counter refreshes;
+    private final Counter overBudget;
+
+    public MovieStore(MovieStoreConfiguration configuration,
+                      OmdbClient omdbClient,
+                      MovieRepository movieRepository,
+                      JdbcOperations jdbcOperations,
+                      TransactionOperations<Connection> transactionOperations,
+                      @Named(TaskExecutors.BLOCKING) ExecutorService executor,
+                      MeterRegistry meterRegistry) {
+        this.omdbClient = omdbClient;
+        this.movieRepository = movieRepository;
+        this.jdbcOperations = jdbcOperations;
+        this.transactionOperations = transactionOperations;
+        this.executor = executor;
+        this.ttl = configuration.getTtl();
+        this.maxStale = configuration.getMaxStale();
+        this.hotEntries = configuration.getHotEntries();
+        this.refreshAfter = configuration.getRefreshAfter();
+        this.refreshMinRequests = configuration.getRefreshMinRequests();
+        this.hot = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MovieEntity> eldest) {
+                return size() > hotEntries;
+            }
+        };
+        this.aliases = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > hotEntries;
+            }
+        };
+        this.fresh = meterRegistry.counter("movie_store.requests", "result", "fresh");
+        this.stale = meterRegistry.counter("movie_store.requests", "result", "stale");
+        this.miss = meterRegistry.counter("movie_store.requests", "result", "miss");
+        this.refreshes = meterRegistry.counter("movie_store.refreshes", "result", "scheduled");
+        this.overBudget = meterRegistry.counter("movie_store.refreshes", "result", "over_budget");
+        this.frequencies = new CountMinSketch(hotEntries);
+        this.refreshBudget = new TokenBucket(configuration.getRefreshRate(), configuration.getRefreshThreads(),
+                System.nanoTime());
+        AtomicInteger threads = new AtomicInteger();
+        int refreshThreads = configuration.getRefreshThreads();
+        this.refresher = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshThreads), runnable -> {
+                    Thread thread = new Thread(runnable, "movie-refresh-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public Optional<Movie> findMovieByTitle(@NotBlank String title) {
+        String key = TitleNormalizer.normalize(title);
+        MovieEntity stored = find(key);
+        Duration age = stored == null ? null : Duration.between(stored.fetchedAt(), Instant.now());
+        if (age != null && age.compareTo(ttl) <= 0) {
+            fresh.increment();
+            return movieOf(count(stored));
+        }
+        if (age != null && age.compareTo(ttl.plus(maxStale)) <= 0) {
+            stale.increment();
+            revalidate(key, title);
+            return movieOf(count(stored));
+        }
+
+        miss.increment();
+        try {
+            return movieOf(count(fetch(key, title).join()));
+        } catch (CompletionException e) {
+            if (stored == null) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            LOG.warn("Unable to fetch '{}' from OMDB, serving the movie fetched at {}", title, stored.fetchedAt(),
+                    e.getCause());
+            return movieOf(count(stored));
+        }
+    }
+
+    /**
+     * Load the most requested movies into memory.
+     */
+    @EventListener
+    void preload(StartupEvent event) {
+        List<MovieEntity> movies = movieRepository.findHottest(hotEntries);
+        synchronized (hot) {
+            // Least requested first, so they are the first evicted
+            for (int i = movies.size() - 1; i >= 0; i--) {
+                hot.putIfAbsent(movies.get(i).titleKey(), movies.get(i));
+            }
+        }
+        LOG.info("Preloaded {} movies", movies.size());
+    }
+
+    /**
+     * Add the requests counted since the last flush to the stored movies.
+     */
+    @Scheduled(fixedDelay = "1m")
+    void flushHits() {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>(hits.size());
+        for (String key : hits.keySet()) {
+            LongAdder adder = hits.remove(key);
+            if (adder != null) {
+                counts.add(Map.entry(key, adder.sum()));
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(ADD_HITS, statement -> {
+            for (Map.Entry<String, Long> count : counts) {
+                statement.setLong(1, count.getValue());
+                statement.setString(2, count.getKey());
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        }));
+    }
+
+    /**
+     * Fetch again the popular movies in memory that are about to expire, most popular first, as long as the
+     * refresh budget allows.
+     */
+    @Scheduled(fixedDelay = "${movie-store.refresh-interval:10s}")
+    void refreshAhead() {
+        Instant refreshBefore = Instant.now().minus(refreshAfter);
+        List<MovieEntity> candidates = new ArrayList<>();
+        synchronized (hot) {
+            for (MovieEntity movie : hot.values()) {
+                if (movie.fetchedAt().isBefore(refreshBefore) && !fetches.containsKey(movie.titleKey())
+                        && frequencies.frequency(movie.titleKey()) >= refreshMinRequests) {
+                    candidates.add(movie);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt((MovieEntity movie) -> frequencies.frequency(movie.titleKey()))
+                .reversed());
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if (refreshBudget.tryAcquire(System.nanoTime()) != 0) {
+                overBudget.increment(candidates.size() - i);
+                return;
+            }
+            MovieEntity movie = candidates.get(i);
+            String key = movie.titleKey();
+            // The title OMDB returned finds the same movie again. A movie OMDB did not know is asked again with
+            // the title it was requested with: the key has lost its case and articles
+            String title = movie.title() != null ? movie.title()
+                    : movie.requestedTitle() != null ? movie.requestedTitle() : key;
+            try {
+                refresher.execute(() -> fetch(key, title).exceptionally(e -> {
+                    LOG.warn("Unable to refresh '{}' from OMDB", title, e);
+                    return null;
+                }));
+                refreshes.increment();
+            } catch (RejectedExecutionException e) {
+                overBudget.increment(candidates.size() - i);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        refresher.shutdownNow();
+        try {
+            flushHits();
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to store the request counts of the movies before shutting down", e);
+        }
+    }
+
+    /**
+     * @param key The normalized title
+     * @return Whether the movie is in memory
+     */
+    boolean isHot(String key) {
+        synchronized (hot) {
+            return hot.containsKey(key);
+        }
+    }
+
+    @Nullable
+    private MovieEntity find(String key) {
+        synchronized (hot) {
+            MovieEntity movie = hot.get(aliases.getOrDefault(key, key));
+            if (movie != null) {
+                return movie;
+            }
+        }
+        MovieEntity movie = movieRepository.findByKeyOrAlias(key).orElse(null);
+        if (movie != null) {
+            remember(key, movie);
+        }
+        return movie;
+    }
+
+    /**
+     * Count a request of a movie, under its canonical key.
+     */
+    private MovieEntity count(MovieEntity movie) {
+        hits.computeIfAbsent(movie.titleKey(), k -> new LongAdder()).increment();
+        frequencies.increment(movie.titleKey());
+        return movie;
+    }
+
+    private void revalidate(String key, String title) {
+        if (fetches.containsKey(key)) {
+            return;
+        }
+        Runnable refresh = () -> fetch(key, title).exceptionally(e -> {
+            LOG.warn("Unable to fetch '{}' from OMDB, still serving the stale movie", title, e);
+            return null;
+        });
+        // Traced as part of the request that found the movie stale
+        executor.execute(PropagatedContext.wrapCurrent(refresh));
+    }
+
+    /**
+     * Fetch a movie from OMDB and store it, or join the fetch of the same title already running.
+     *
+     * @param key   The normalized title, as requested
+     * @param title The title to ask OMDB for
+     */
+    private CompletableFuture<MovieEntity> fetch(String key, String title) {
+        CompletableFuture<MovieEntity> fetch = new CompletableFuture<>();
+        CompletableFuture<MovieEntity> running = fetches.putIfAbsent(key, fetch);
+        if (running != null) {
+            return running;
+        }
+        try {
+            Optional<Movie> movie = omdbClient.findMovieByTitle(title);
+            String titleKey = movie.map(found -> TitleNormalizer.normalize(found.getTitle())).orElse(key);
+            MovieEntity entity = new MovieEntity(titleKey, movie.map(Movie::getTitle).orElse(null), title,
+                    movie.map(Movie::getYear).orElse(null), Instant.now(), 0);
+            // Served from memory before it is stored, so a request never gets an older movie than the table has
+            remember(key, entity);
+            save(key, entity);
+            fetch.complete(entity);
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+        } finally {
+            fetches.remove(key, fetch);
+        }
+        return fetch;
+    }
+
+    private void save(String key, MovieEntity movie) {
+        transactionOperations.executeWrite(status -> {
+            jdbcOperations.prepareStatement(UPSERT, statement -> {
+                statement.setString(1, movie.titleKey());
+                statement.setString(2, movie.title());
+                statement.setString(3, movie.requestedTitle());
+                statement.setString(4, movie.year());
+                statement.setTimestamp(5, Timestamp.from(movie.fetchedAt()));
+                return statement.executeUpdate();
+            });
+            if (!key.equals(movie.titleKey())) {
+                jdbcOperations.prepareStatement(UPSERT_ALIAS, statement -> {
+                    statement.setString(1, key);
+                    statement.setString(2, movie.titleKey());
+                    return statement.executeUpdate();
+                });
+            }
+            return null;
+        });
+    }
+
+    private void remember(String key, MovieEntity movie) {
+        synchronized (hot) {
+            hot.put(movie.titleKey(), movie);
+            if (!key.equals(movie.titleKey())) {
+                aliases.put(key, movie.titleKey());
+            }
+        }
+    }
+
+    private static Optional<Movie> movieOf(MovieEntity entity) {
+        return entity.title() == null ? Optional.empty() : Optional.of(new Movie(entity.title(), entity.year()));
+    }
+}
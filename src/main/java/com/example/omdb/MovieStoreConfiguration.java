@@ -0,0 +1,133 @@
+package com.example.omdb;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Persistent store of the OMDB results.
+ */
+@ConfigurationProperties(MovieStoreConfiguration.PREFIX)
+public class MovieStoreConfiguration {
+
+    public static final String PREFIX = "movie-store";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * Whether the OMDB results are stored in the {@code movie} table.
+     */
+    private boolean enabled;
+
+    /**
+     * How long a stored movie is served without asking OMDB again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long after its ttl a stored movie is still served, while it is fetched again in the background.
+     */
+    private Duration maxStale = Duration.ofDays(7);
+
+    /**
+     * Number of movies kept in memory, and preloaded at startup from the most requested ones.
+     */
+    private int hotEntries = 1000;
+
+    /**
+     * Age after which a movie in memory is fetched again in the background if it is popular, before its ttl
+     * makes a caller wait for it or get it stale.
+     */
+    private Duration refreshAfter = Duration.ofHours(20);
+
+    /**
+     * How often the movies in memory are checked for a refresh.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /**
+     * Number of recent requests that make a movie popular enough to be refreshed ahead of its ttl.
+     */
+    private int refreshMinRequests = 5;
+
+    /**
+     * Number of refreshes per second allowed, across all the titles, so refreshes never use up the OMDB quota.
+     */
+    private double refreshRate = 1;
+
+    /**
+     * Number of threads fetching the refreshed movies.
+     */
+    private int refreshThreads = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getMaxStale() {
+        return maxStale;
+    }
+
+    public void setMaxStale(Duration maxStale) {
+        this.maxStale = maxStale;
+    }
+
+    public int getHotEntries() {
+        return hotEntries;
+    }
+
+    public void setHotEntries(int hotEntries) {
+        this.hotEntries = hotEntries;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getRefreshMinRequests() {
+        return refreshMinRequests;
+    }
+
+    public void setRefreshMinRequests(int refreshMinRequests) {
+        this.refreshMinRequests = refreshMinRequests;
+    }
+
+    public double getRefreshRate() {
+        return refreshRate;
+    }
+
+    public void setRefreshRate(double refreshRate) {
+        this.refreshRate = refreshRate;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.omdb;
 
+import com.example.concurrencylimit.ConcurrencyLimited;
+import com.example.jfr.OmdbCallEvent;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.QueryValue;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.tracing.annotation.NewSpan;
+import io.micronaut.tracing.annotation.SpanTag;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.Optional;
@@ -15,12 +22,38 @@ public abstract class OmdbClient implements OmdbApi {
     String apikey;
 
     @Override
-    public Optional<Movie> findMovieByTitle(@NotBlank String title) {
-        Movie movie = this.findMovieByTitle(title, apikey);
-        if (movie != null && movie.getTitle() != null) {
-            return Optional.of(movie);
-        } else {
+    @ConcurrencyLimited("omdb")
+    @NewSpan
+    public Optional<Movie> findMovieByTitle(@NotBlank @SpanTag("movie.title") String title) {
+        OmdbCallEvent event = new OmdbCallEvent();
+        event.begin();
+        String outcome = OmdbCallEvent.ERROR;
+        long bytes = -1;
+        try {
+            HttpResponse<Movie> response = this.findMovieByTitle(title, apikey);
+            bytes = response.getContentLength();
+            Movie movie = response.body();
+            if (movie != null && movie.getTitle() != null) {
+                outcome = OmdbCallEvent.FOUND;
+                return Optional.of(movie);
+            } else {
+                outcome = OmdbCallEvent.NOT_FOUND;
+                return Optional.empty();
+            }
+        } catch (HttpClientResponseException e) {
+            if (e.getStatus() != HttpStatus.NOT_FOUND) {
+                throw e;
+            }
+            outcome = OmdbCallEvent.NOT_FOUND;
             return Optional.empty();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.title = title;
+                event.outcome = outcome;
+                event.bytes = bytes;
+                event.commit();
+            }
         }
     }
 
@@ -30,8 +63,9 @@ public abstract class OmdbClient implements OmdbApi {
      *
      * @param title  The movie title to find
      * @param apikey The apikey
-     * @return A movie
+     * @return The response, with a movie without title when OMDB did not find it. A 404 is thrown as an
+     * {@link HttpClientResponseException}, not returned.
      */
     @Get("/")
-    abstract Movie findMovieByTitle(@NotBlank @QueryValue("t") String title, @NotBlank @QueryValue("apikey") String apikey);
+    abstract HttpResponse<Movie> findMovieByTitle(@NotBlank @QueryValue("t") String title, @NotBlank @QueryValue("apikey") String apikey);
 }
@@ -0,0 +1,114 @@
+package com.example.omdb;
+
+import java.text.Normalizer;
+
+/**
+ * Turns the titles requested by the clients, and the ones returned by OMDB, into the keys of the movie store,
+ * so that the variants of a title share the same entry.
+ * <p>
+ * The key is the title in Unicode NFKC (full-width letters and ligatures become plain ones), case folded, with
+ * runs of whitespace collapsed to a single space and without the surrounding whitespace, and without its
+ * English leading article, or trailing one as in {@code "Stand, The"}. Case folding is the simple, one code
+ * point to one code point, kind: {@code "ß"} is not folded to {@code "ss"}.
+ * </p>
+ * <p>
+ * Most titles are already normalized or plain ASCII: a first pass checks that without allocating, so such a
+ * title is returned as is, and the NFKC normalization is only run on non-ASCII titles.
+ * </p>
+ */
+public final class TitleNormalizer {
+
+    private static final String[] LEADING_ARTICLES = {"the ", "an ", "a "};
+    private static final String[] TRAILING_ARTICLES = {", the", ", an", ", a"};
+
+    private TitleNormalizer() {
+    }
+
+    /**
+     * @param title The title
+     * @return The normalized title
+     */
+    public static String normalize(String title) {
+        String text = title;
+        if (!isAscii(text) && !Normalizer.isNormalized(text, Normalizer.Form.NFKC)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        }
+        if (!isFoldedAndCollapsed(text)) {
+            text = foldAndCollapse(text);
+        }
+        return withoutArticle(text);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFoldedAndCollapsed(String text) {
+        boolean previousSpace = true;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (isSpace(codePoint)) {
+                if (codePoint != ' ' || previousSpace) {
+                    return false;
+                }
+                previousSpace = true;
+            } else {
+                if (fold(codePoint) != codePoint) {
+                    return false;
+                }
+                previousSpace = false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return !previousSpace || text.isEmpty();
+    }
+
+    private static String foldAndCollapse(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (isSpace(codePoint)) {
+                pendingSpace = !builder.isEmpty();
+            } else {
+                if (pendingSpace) {
+                    builder.append(' ');
+                    pendingSpace = false;
+                }
+                builder.appendCodePoint(fold(codePoint));
+            }
+            i += Character.charCount(codePoint);
+        }
+        return builder.toString();
+    }
+
+    private static String withoutArticle(String text) {
+        for (String article : LEADING_ARTICLES) {
+            if (text.length() > article.length() && text.startsWith(article)) {
+                return text.substring(article.length());
+            }
+        }
+        for (String article : TRAILING_ARTICLES) {
+            if (text.length() > article.length() && text.endsWith(article)) {
+                return text.substring(0, text.length() - article.length());
+            }
+        }
+        return text;
+    }
+
+    private static boolean isSpace(int codePoint) {
+        return Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+    }
+
+    private static int fold(int codePoint) {
+        if (codePoint < 0x80) {
+            return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+        }
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+}
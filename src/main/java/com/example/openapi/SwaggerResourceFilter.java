@@ -0,0 +1,206 @@
+package com.example.openapi;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.RequestFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the OpenAPI spec and the Swagger-UI assets from memory, with their gzip variant precompressed at build
+ * time, strong {@code ETag}s and long-lived cache headers.
+ * <p>
+ * The static resources handler reads a resource from the jar on every request and the server then compresses it
+ * again. Here each resource is read once, with the {@code .gz} file the build writes next to it: clients accepting
+ * gzip get those bytes as they are (the server does not compress a response that already has a
+ * {@code Content-Encoding}), and clients sending back the {@code ETag} get a {@code 304} without body. Resources
+ * that are not on the classpath fall through to the static resources mapped in {@code application.yml}.
+ * </p>
+ */
+@ServerFilter(patterns = {SwaggerResourceFilter.SWAGGER + "**", SwaggerResourceFilter.SWAGGER_UI + "**"})
+public class SwaggerResourceFilter {
+
+    static final String SWAGGER = "/swagger/";
+    static final String SWAGGER_UI = "/swagger-ui/";
+
+    // The spec name carries the version, and the ETag makes revalidating after a day cheap
+    static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private static final String GZIP = "gzip";
+
+    // Only the resources found: the paths requested are not bounded, the resources are
+    private final ConcurrentHashMap<String, Resource> resources = new ConcurrentHashMap<>();
+
+    /**
+     * A representation of a resource.
+     *
+     * @param bytes The body
+     * @param etag  The quoted strong entity tag
+     */
+    record Variant(byte[] bytes, String etag) {
+    }
+
+    /**
+     * A resource and its representations.
+     *
+     * @param mediaType The media type
+     * @param identity  The resource as is
+     * @param gzip      The resource compressed with gzip, {@code null} if the build did not precompress it
+     */
+    record Resource(MediaType mediaType, Variant identity, @Nullable Variant gzip) {
+    }
+
+    @RequestFilter
+    @Nullable
+    public HttpResponse<?> serve(HttpRequest<?> request) {
+        if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+            return null;
+        }
+        String path = classpathPath(request.getPath());
+        if (path == null) {
+            return null;
+        }
+        Resource resource = resources.get(path);
+        if (resource == null) {
+            resource = load(path);
+            if (resource == null) {
+                return null;
+            }
+            resources.putIfAbsent(path, resource);
+        }
+
+        HttpHeaders headers = request.getHeaders();
+        Variant variant = resource.gzip() != null && acceptsGzip(headers.get(HttpHeaders.ACCEPT_ENCODING))
+                ? resource.gzip()
+                : resource.identity();
+
+        MutableHttpResponse<?> response;
+        if (matches(headers.get(HttpHeaders.IF_NONE_MATCH), variant.etag())) {
+            response = HttpResponse.notModified();
+        } else {
+            response = HttpResponse.ok(variant.bytes()).contentType(resource.mediaType());
+            if (variant == resource.gzip()) {
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+        }
+        return response.header(HttpHeaders.ETAG, variant.etag())
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * @param requestPath The request path
+     * @return The classpath location of the resource, as mapped in {@code application.yml}, {@code null} if the
+     * path is not a resource path
+     */
+    @Nullable
+    static String classpathPath(String requestPath) {
+        String directory;
+        String name;
+        if (requestPath.startsWith(SWAGGER_UI)) {
+            directory = "META-INF/swagger/views/swagger-ui/";
+            name = requestPath.substring(SWAGGER_UI.length());
+        } else if (requestPath.startsWith(SWAGGER)) {
+            directory = "META-INF/swagger/";
+            name = requestPath.substring(SWAGGER.length());
+        } else {
+            return null;
+        }
+        // Files only: on an exploded classpath, a directory would be read as its listing
+        if (name.startsWith("/") || name.contains("..") || name.contains("//")
+                || name.lastIndexOf('.') <= name.lastIndexOf('/')) {
+            return null;
+        }
+        return directory + name;
+    }
+
+    /**
+     * @param acceptEncoding The {@code Accept-Encoding} header
+     * @return Whether the client accepts a gzip body
+     */
+    static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                return semicolon < 0 || !isZeroQuality(coding.substring(semicolon + 1));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param ifNoneMatch The {@code If-None-Match} header
+     * @param etag        The current entity tag
+     * @return Whether the client already has the current representation
+     */
+    static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as If-None-Match requires
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        String compact = parameters.replace(" ", "").toLowerCase(Locale.ROOT);
+        return compact.startsWith("q=0") && compact.substring(3).replace(".", "").replace("0", "").isEmpty();
+    }
+
+    @Nullable
+    private static Resource load(String path) {
+        byte[] identity = read(path);
+        if (identity == null) {
+            return null;
+        }
+        String hash = sha256(identity);
+        byte[] gzip = read(path + ".gz");
+        return new Resource(
+                MediaType.forFilename(path),
+                new Variant(identity, '"' + hash + '"'),
+                gzip != null ? new Variant(gzip, '"' + hash + "-gzip\"") : null);
+    }
+
+    @Nullable
+    private static byte[] read(String path) {
+        try (InputStream inputStream = SwaggerResourceFilter.class.getClassLoader().getResourceAsStream(path)) {
+            return inputStream != null ? inputStream.readAllBytes() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + path, e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            // 128 bits are plenty to tell two versions of a resource apart
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ratelimit;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Per-client rate limiting of the API.
+ */
+@ConfigurationProperties(RateLimitConfiguration.PREFIX)
+public class RateLimitConfiguration {
+
+    public static final String PREFIX = "rate-limit";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * How the requests of a client are limited.
+     */
+    public enum Mode {
+        /**
+         * At most {@code capacity} requests in a burst, refilled at {@code requests-per-second}.
+         */
+        TOKEN_BUCKET,
+        /**
+         * At most {@code max-concurrent} requests in flight. Sheds load as soon as a client's requests pile up,
+         * whatever their rate.
+         */
+        CONCURRENCY
+    }
+
+    /**
+     * Whether the requests are rate limited.
+     */
+    private boolean enabled;
+
+    private Mode mode = Mode.TOKEN_BUCKET;
+
+    /**
+     * Sustained number of requests per second allowed to each client, in {@code TOKEN_BUCKET} mode.
+     */
+    private double requestsPerSecond = 10;
+
+    /**
+     * Number of requests a client can send in a burst, in {@code TOKEN_BUCKET} mode.
+     */
+    private int capacity = 20;
+
+    /**
+     * Number of requests of a client that can be in flight at the same time, in {@code CONCURRENCY} mode.
+     */
+    private int maxConcurrent = 8;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.RequestFilter;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.util.HttpClientAddressResolver;
+import io.micronaut.scheduling.annotation.Scheduled;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limits the API requests of each client, answering {@code 429 Too Many Requests} with a {@code Retry-After}
+ * header to the clients over their limit.
+ * <p>
+ * Clients are identified by their IP address, and IPv6 clients by their /64 network since a host usually gets a
+ * whole one. The address is the one of the {@link HttpClientAddressResolver}: behind a load balancer, the client
+ * address it forwards ({@code micronaut.server.client-address-header}, else the {@code Forwarded} and
+ * {@code X-Forwarded-For} headers), so the clients do not all share the limit of the proxy. A forwarded value that
+ * is not an IP address falls back to the address of the connection. No other header or query value is used: the
+ * API has no credential to validate, and rotating one would have given a fresh allowance every time. Exposed
+ * without a proxy, set {@code client-address-header} to a header the clients cannot send, since they could rotate
+ * the forwarded headers as well.
+ * </p>
+ * <p>
+ * The limits live in {@link ConcurrentHashMap}s, whose reads take no lock and whose writes lock a single bin,
+ * and every token bucket is a single atomic updated with CAS, so requests of different clients barely contend.
+ * The limits of idle clients are forgotten every minute to keep the maps small. An idle in-flight count is closed
+ * with a CAS before it is forgotten, so a request never counts itself on a count that is no longer in the map.
+ * </p>
+ */
+@ServerFilter(patterns = {"/authors/**", "/movies/**"})
+@Requires(property = RateLimitConfiguration.ENABLED, value = "true")
+public class RateLimitFilter {
+
+    private static final String IN_FLIGHT = RateLimitFilter.class.getName() + ".inFlight";
+    private static final int CLOSED = Integer.MIN_VALUE;
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final RateLimitConfiguration configuration;
+    private final HttpClientAddressResolver addressResolver;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public RateLimitFilter(RateLimitConfiguration configuration,
+                           HttpClientAddressResolver addressResolver,
+                           MeterRegistry meterRegistry) {
+        this.configuration = configuration;
+        this.addressResolver = addressResolver;
+        this.rejected = Counter.builder("rate_limit.rejected")
+                .tag("mode", configuration.getMode().name().toLowerCase(Locale.ROOT))
+                .description("Requests refused with 429 Too Many Requests")
+                .register(meterRegistry);
+        Gauge.builder("rate_limit.clients", this, filter -> filter.buckets.size() + filter.inFlight.size())
+                .description("Clients with a rate limit in memory")
+                .register(meterRegistry);
+    }
+
+    @RequestFilter
+    @Nullable
+    public HttpResponse<?> limit(HttpRequest<?> request) {
+        String client = client(request);
+        return switch (configuration.getMode()) {
+            case TOKEN_BUCKET -> acquireToken(client);
+            case CONCURRENCY -> acquireSlot(request, client);
+        };
+    }
+
+    @ResponseFilter
+    public void release(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        request.getAttribute(IN_FLIGHT, AtomicInteger.class).ifPresent(AtomicInteger::decrementAndGet);
+    }
+
+    /**
+     * Forget the limits of the clients that are back to their full allowance.
+     */
+    @Scheduled(fixedDelay = "1m")
+    void evictIdleClients() {
+        long now = System.nanoTime();
+        // A request racing with the eviction of a full bucket takes its token from the forgotten bucket, so that
+        // client may get one request more than its burst
+        for (String client : buckets.keySet()) {
+            buckets.computeIfPresent(client, (key, bucket) -> bucket.isFull(now) ? null : bucket);
+        }
+        for (String client : inFlight.keySet()) {
+            inFlight.computeIfPresent(client, (key, count) -> count.compareAndSet(0, CLOSED) ? null : count);
+        }
+    }
+
+    @Nullable
+    private HttpResponse<?> acquireToken(String client) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(client,
+                    key -> new TokenBucket(configuration.getRequestsPerSecond(), configuration.getCapacity(), now));
+        }
+        long wait = bucket.tryAcquire(now);
+        return wait == 0 ? null : tooManyRequests(wait);
+    }
+
+    @Nullable
+    private HttpResponse<?> acquireSlot(HttpRequest<?> request, String client) {
+        AtomicInteger count;
+        int taken;
+        do {
+            count = inFlight.get(client);
+            if (count == null) {
+                count = inFlight.computeIfAbsent(client, key -> new AtomicInteger());
+            }
+            // Negative once closed by the eviction, the next count is in the map or about to be created
+            taken = count.incrementAndGet();
+        } while (taken < 0);
+        if (taken > configuration.getMaxConcurrent()) {
+            count.decrementAndGet();
+            return tooManyRequests(TimeUnit.SECONDS.toNanos(1));
+        }
+        request.setAttribute(IN_FLIGHT, count);
+        return null;
+    }
+
+    private HttpResponse<?> tooManyRequests(long waitNanos) {
+        rejected.increment();
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return HttpResponse.<JsonError>status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(new JsonError("Too many requests, retry in " + seconds + "s"));
+    }
+
+    private String client(HttpRequest<?> request) {
+        InetAddress address = address(addressResolver.resolve(request));
+        return client(address != null ? address : request.getRemoteAddress().getAddress());
+    }
+
+    /**
+     * Parse a resolved client address without any DNS lookup.
+     *
+     * @param resolved The address of the {@link HttpClientAddressResolver}, possibly with brackets and a port as in
+     *                 a {@code Forwarded} header
+     * @return The IP address, or {@code null} for anything else: no address, a host name, {@code unknown} or an
+     * obfuscated identifier
+     */
+    @Nullable
+    static InetAddress address(@Nullable String resolved) {
+        if (resolved == null) {
+            return null;
+        }
+        String literal = resolved.strip();
+        if (literal.startsWith("[")) {
+            int end = literal.indexOf(']');
+            literal = end < 0 ? "" : literal.substring(1, end);
+        } else if (literal.indexOf(':') >= 0 && literal.indexOf(':') == literal.lastIndexOf(':')) {
+            // An IPv4 address and a port
+            literal = literal.substring(0, literal.indexOf(':'));
+        }
+        try {
+            Matcher ipv4 = IPV4.matcher(literal);
+            if (ipv4.matches()) {
+                byte[] bytes = new byte[4];
+                for (int i = 0; i < 4; i++) {
+                    int part = Integer.parseInt(ipv4.group(i + 1));
+                    if (part > 255) {
+                        return null;
+                    }
+                    bytes[i] = (byte) part;
+                }
+                return InetAddress.getByAddress(bytes);
+            }
+            // Within brackets, an invalid IPv6 address fails instead of being looked up as a host name
+            return IPV6.matcher(literal).matches() ? InetAddress.getByName("[" + literal + "]") : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param address The address of the client
+     * @return The IPv4 address, or the /64 network of an IPv6 address
+     */
+    static String client(InetAddress address) {
+        if (address instanceof Inet6Address) {
+            return HexFormat.of().formatHex(address.getAddress(), 0, 8) + "/64";
+        }
+        return address.getHostAddress();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * <p>
+ * Instead of a token count and a refill timestamp, the bucket keeps a single value updated with CAS: the
+ * time at which it will be full again (the generic cell rate algorithm). Each request pushes that time one
+ * interval further; a request is refused when it would push it more than {@code capacity} intervals ahead of
+ * now, which is exactly a bucket of {@code capacity} tokens refilled one token per interval.
+ * </p>
+ */
+public final class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param requestsPerSecond The refill rate
+     * @param capacity          The number of tokens when full
+     * @param now               The current time, in nanoseconds
+     */
+    public TokenBucket(double requestsPerSecond, int capacity, long now) {
+        this.interval = (long) (1_000_000_000L / requestsPerSecond);
+        this.tolerance = interval * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @param now The current time, in nanoseconds
+     * @return 0 if a token was taken, otherwise how long to wait for one, in nanoseconds
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param now The current time, in nanoseconds
+     * @return Whether the bucket is full, so forgetting it changes nothing
+     */
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.reactive;
+
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.Book;
+import com.example.repositories.AuthorReads;
+import com.example.repositories.AuthorRepository;
+import com.example.repositories.NamedParameters;
+import com.example.services.SavedAuthor;
+import io.micronaut.context.annotation.Requires;
+import io.r2dbc.spi.Readable;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link AuthorRepository}, with the same SQL.
+ */
+@Singleton
+@Requires(property = ReactiveConfiguration.ENABLED, value = "true")
+public class ReactiveAuthorRepository {
+
+    // The SQL of the blocking repositories, numbered in the order the arguments are bound below
+    private static final String INSERT_OR_SELECT = NamedParameters.numbered(AuthorRepository.INSERT_OR_SELECT, "name");
+
+    private static final String FIND_BY_NAME = NamedParameters.numbered(AuthorReads.FIND_BY_NAME, "name");
+
+    private static final String FIND_BOOKS =
+            NamedParameters.numbered(AuthorReads.FIND_BOOKS, "authorId", "limit", "offset");
+
+    private static final String SEARCH_BY_NAME =
+            NamedParameters.numbered(AuthorReads.SEARCH_BY_NAME, "prefix", "query", "limit", "offset");
+
+    private final ReactiveDatabase database;
+
+    public ReactiveAuthorRepository(ReactiveDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Save an author, or find the existing one with the same name, in a single round trip that writes nothing
+     * for a duplicate. A second one finds the author inserted by a concurrent transaction after the first
+     * statement started, which its snapshot misses.
+     *
+     * @param name The author name
+     * @return The author, without books, and whether it was created
+     */
+    public Mono<SavedAuthor> upsert(String name) {
+        return database.query(INSERT_OR_SELECT,
+                        row -> new SavedAuthor(author(row), Boolean.TRUE.equals(row.get("created", Boolean.class))),
+                        name)
+                .singleOrEmpty()
+                .switchIfEmpty(Mono.defer(() -> database.query(FIND_BY_NAME, ReactiveAuthorRepository::author, name)
+                        .single()
+                        .map(author -> new SavedAuthor(author, false))));
+    }
+
+    /**
+     * Find an author by name.
+     *
+     * @param name The author name
+     * @return The author id and name, empty if there is no such author
+     */
+    public Mono<AuthorMatch> findByName(String name) {
+        return database.query(FIND_BY_NAME, ReactiveAuthorRepository::match, name).singleOrEmpty();
+    }
+
+    /**
+     * Find a page of the books of an author, ordered by title (and id for books with the same title).
+     *
+     * @param authorId The author id
+     * @param offset   The number of books to skip
+     * @param limit    The maximum number of books to return
+     * @return The books
+     */
+    public Flux<Book> findBooks(long authorId, int offset, int limit) {
+        return database.query(FIND_BOOKS,
+                row -> new Book(row.get("title", String.class), row.get("pages", Integer.class)),
+                authorId, limit, offset);
+    }
+
+    /**
+     * Search authors whose name starts with the given prefix or is similar to the given query, ignoring case.
+     *
+     * @param query  The lower case query
+     * @param prefix The lower case query with the {@code LIKE} wildcards escaped, followed by {@code %}
+     * @param offset The number of authors to skip
+     * @param limit  The maximum number of authors to return
+     * @return The matching authors, best match first
+     * @see com.example.repositories.AuthorReads#searchByName(String, String, int, int)
+     */
+    public Flux<AuthorMatch> searchByName(String query, String prefix, int offset, int limit) {
+        return database.query(SEARCH_BY_NAME, ReactiveAuthorRepository::match, prefix, query, limit, offset);
+    }
+
+    private static Author author(Readable row) {
+        return new Author(row.get("id", Long.class), row.get("name", String.class), List.of());
+    }
+
+    private static AuthorMatch match(Readable row) {
+        return new AuthorMatch(row.get("id", Long.class), row.get("name", String.class));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.reactive;
+
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.services.SaveBook;
+import com.example.services.SavedAuthor;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking author service, the counterpart of {@link com.example.services.AuthorService} backed by the
+ * R2DBC repositories. Nothing happens until the returned publishers are subscribed to.
+ */
+public interface ReactiveAuthorService {
+
+    /**
+     * Save an author without books, or find the existing one with the same name.
+     *
+     * @param name The author name
+     * @return The author, and whether it was created
+     */
+    Mono<SavedAuthor> saveAuthor(@NotBlank String name);
+
+    /**
+     * Add a new book to an exiting author.
+     *
+     * @param saveBook The saveBook
+     * @return Whether the book was added, {@code false} if the author does not exist
+     */
+    Mono<Boolean> addBookToAuthor(@NotNull @Valid SaveBook saveBook);
+
+    /**
+     * Find an author by name with a page of their books, ordered by title.
+     *
+     * @param name   The author name
+     * @param offset The number of books to skip
+     * @param limit  The maximum number of books to return
+     * @return The author, empty if the author doesn't exist
+     */
+    Mono<Author> findAuthorByName(@NotBlank String name, @PositiveOrZero int offset, @Positive int limit);
+
+    /**
+     * Search authors by name prefix or similarity, ignoring case. Prefix matches come first.
+     *
+     * @param query  What the user typed, e.g. {@code "stephen k"}
+     * @param offset The number of authors to skip
+     * @param limit  The maximum number of authors to return
+     * @return The matching authors, best match first
+     */
+    Mono<List<AuthorMatch>> searchAuthors(@NotBlank String query, @PositiveOrZero int offset, @Positive int limit);
+}
@@ -0,0 +1,63 @@
+package com.example.reactive;
+
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.services.SaveBook;
+import com.example.services.SavedAuthor;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+@Singleton
+@Requires(property = ReactiveConfiguration.ENABLED, value = "true")
+public class ReactiveAuthorServiceImpl implements ReactiveAuthorService {
+
+    private final ReactiveAuthorRepository authorRepository;
+    private final ReactiveBookRepository bookRepository;
+
+    public ReactiveAuthorServiceImpl(ReactiveAuthorRepository authorRepository,
+                                     ReactiveBookRepository bookRepository) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public Mono<SavedAuthor> saveAuthor(@NotBlank String name) {
+        return authorRepository.upsert(name);
+    }
+
+    @Override
+    public Mono<Boolean> addBookToAuthor(@NotNull @Valid SaveBook saveBook) {
+        return bookRepository.save(saveBook.getTitle(), saveBook.getPages(), saveBook.getAuthorId());
+    }
+
+    @Override
+    public Mono<Author> findAuthorByName(@NotBlank String name, @PositiveOrZero int offset, @Positive int limit) {
+        return authorRepository.findByName(name)
+                .flatMap(author -> authorRepository.findBooks(author.getId(), offset, limit)
+                        .collectList()
+                        .map(books -> new Author(author.getId(), author.getName(), books)));
+    }
+
+    @Override
+    public Mono<List<AuthorMatch>> searchAuthors(@NotBlank String query,
+                                                 @PositiveOrZero int offset,
+                                                 @Positive int limit) {
+        String normalized = query.strip().toLowerCase(Locale.ROOT);
+        return authorRepository.searchByName(normalized, escapeLike(normalized) + '%', offset, limit).collectList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.reactive;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.example.repositories.BookRepository}.
+ */
+@Singleton
+@Requires(property = ReactiveConfiguration.ENABLED, value = "true")
+public class ReactiveBookRepository {
+
+    // Checks the author and inserts in one statement, instead of a find then a save in a transaction
+    private static final String INSERT = """
+            INSERT INTO book (title, pages, date_created, author_id)
+            SELECT $1, $2, now(), id FROM author WHERE id = $3""";
+
+    private final ReactiveDatabase database;
+
+    public ReactiveBookRepository(ReactiveDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Save a book of an existing author.
+     *
+     * @param title    The title
+     * @param pages    The number of pages
+     * @param authorId The author id
+     * @return Whether the book was saved, {@code false} if the author does not exist
+     */
+    public Mono<Boolean> save(String title, int pages, long authorId) {
+        return database.update(INSERT, title, pages, authorId).map(rows -> rows > 0);
+    }
+}
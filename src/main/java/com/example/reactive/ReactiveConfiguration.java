@@ -0,0 +1,109 @@
+package com.example.reactive;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the reactive endpoints under {@code /reactive/authors}. They read and write through a pool
+ * of R2DBC connections to the database of the {@code default} datasource, unless another one is given:
+ * <pre>
+ * reactive:
+ *   enabled: true
+ *   url: r2dbc:postgresql://db:5432/demo
+ *   username: demo
+ *   password: secret
+ * </pre>
+ */
+@ConfigurationProperties(ReactiveConfiguration.PREFIX)
+public class ReactiveConfiguration {
+
+    public static final String PREFIX = "reactive";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * Whether the reactive endpoints and their connection pool are started.
+     */
+    private boolean enabled;
+
+    /**
+     * R2DBC url of the database, derived from the url of the {@code default} datasource when not set.
+     */
+    @Nullable
+    private String url;
+
+    /**
+     * Database user, the user of the {@code default} datasource when not set.
+     */
+    @Nullable
+    private String username;
+
+    /**
+     * Database password, the password of the {@code default} datasource when not set.
+     */
+    @Nullable
+    private String password;
+
+    /**
+     * Maximum number of connections. Requests wait for a connection without holding a thread, so a few
+     * connections serve many concurrent requests.
+     */
+    private int maxPoolSize = 10;
+
+    /**
+     * How long a request waits for a connection before failing.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Nullable
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(@Nullable String url) {
+        this.url = url;
+    }
+
+    @Nullable
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(@Nullable String username) {
+        this.username = username;
+    }
+
+    @Nullable
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(@Nullable String password) {
+        this.password = password;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+}
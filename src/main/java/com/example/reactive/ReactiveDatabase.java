@@ -0,0 +1,179 @@
+package com.example.reactive;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.env.Environment;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The R2DBC connection pool of the reactive repositories, and the few statement helpers they need.
+ * <p>
+ * Every statement borrows a connection for its own duration and gives it back when its result is consumed,
+ * cancelled or failed. No thread waits on the database: the rows are pushed by the driver's event loop.
+ * </p>
+ */
+@Singleton
+@Requires(property = ReactiveConfiguration.ENABLED, value = "true")
+public class ReactiveDatabase {
+
+    private static final String JDBC_PREFIX = "jdbc:";
+
+    /**
+     * The JDBC driver parameters and their R2DBC driver equivalent, besides ssl, sslmode and connectTimeout.
+     */
+    private static final Map<String, String> R2DBC_PARAMETERS = Map.of(
+            "sslrootcert", "sslRootCert",
+            "sslcert", "sslCert",
+            "sslkey", "sslKey",
+            "sslpassword", "sslPassword",
+            "currentSchema", "schema",
+            "ApplicationName", "applicationName",
+            "tcpKeepAlive", "tcpKeepAlive");
+
+    /**
+     * The JDBC driver parameters that only tune the JDBC driver or its logging.
+     */
+    private static final Set<String> JDBC_ONLY_PARAMETERS = Set.of(
+            "loggerLevel", "loggerFile", "prepareThreshold", "reWriteBatchedInserts", "defaultRowFetchSize");
+
+    private final ConnectionPool pool;
+
+    public ReactiveDatabase(ReactiveConfiguration configuration, Environment environment) {
+        String url = configuration.getUrl() != null
+                ? configuration.getUrl()
+                : r2dbcUrl(environment.getRequiredProperty("datasources.default.url", String.class));
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        String username = configuration.getUsername() != null
+                ? configuration.getUsername()
+                : environment.getProperty("datasources.default.username", String.class).orElse(null);
+        if (username != null) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        String password = configuration.getPassword() != null
+                ? configuration.getPassword()
+                : environment.getProperty("datasources.default.password", String.class).orElse(null);
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("reactive")
+                .initialSize(0)
+                .maxSize(configuration.getMaxPoolSize())
+                .maxAcquireTime(configuration.getAcquireTimeout())
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+    }
+
+    /**
+     * Run a query.
+     *
+     * @param sql        The SQL, with {@code $1}, {@code $2}... placeholders
+     * @param mapper     Maps a row
+     * @param parameters The parameters, in placeholder order
+     * @param <T>        The type of the mapped rows
+     * @return The mapped rows
+     */
+    public <T> Flux<T> query(String sql, Function<? super Readable, T> mapper, Object... parameters) {
+        return Flux.usingWhen(pool.create(),
+                connection -> Flux.from(statement(connection, sql, parameters).execute())
+                        .flatMap(result -> result.map(mapper)),
+                Connection::close);
+    }
+
+    /**
+     * Run an insert, update or delete.
+     *
+     * @param sql        The SQL, with {@code $1}, {@code $2}... placeholders
+     * @param parameters The parameters, in placeholder order
+     * @return The number of rows changed
+     */
+    public Mono<Long> update(String sql, Object... parameters) {
+        return Flux.usingWhen(pool.create(),
+                        connection -> Flux.from(statement(connection, sql, parameters).execute())
+                                .flatMap(result -> result.getRowsUpdated()),
+                        Connection::close)
+                .reduce(0L, Long::sum);
+    }
+
+    private static Statement statement(Connection connection, String sql, Object... parameters) {
+        Statement statement = connection.createStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.bind(i, parameters[i]);
+        }
+        return statement;
+    }
+
+    /**
+     * Translate the url of a JDBC datasource, with its TLS, schema and connection parameters. The SSL mode defaults
+     * to {@code prefer} like the JDBC driver, where the R2DBC driver would not even try TLS.
+     *
+     * @param jdbcUrl The url of a JDBC datasource, e.g. {@code jdbc:postgresql://db:5432/demo?sslmode=require}
+     * @return The R2DBC url of the same database, e.g. {@code r2dbc:postgresql://db:5432/demo?sslMode=require}
+     * @throws IllegalArgumentException if the url is not a JDBC one, or has a parameter the R2DBC driver cannot
+     *                                  honour: set {@code reactive.url} instead
+     */
+    static String r2dbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith(JDBC_PREFIX)) {
+            throw new IllegalArgumentException("Not a JDBC url: " + jdbcUrl);
+        }
+        int query = jdbcUrl.indexOf('?');
+        String ssl = null;
+        String sslMode = null;
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String parameter : query < 0 ? new String[0] : jdbcUrl.substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8);
+            switch (name) {
+                case "ssl" -> ssl = value;
+                case "sslmode" -> sslMode = value;
+                case "connectTimeout" -> parameters.put(name, Duration.ofSeconds(Long.parseLong(value)).toString());
+                default -> {
+                    if (R2DBC_PARAMETERS.containsKey(name)) {
+                        parameters.put(R2DBC_PARAMETERS.get(name), value);
+                    } else if (!name.isEmpty() && !JDBC_ONLY_PARAMETERS.contains(name)) {
+                        throw new IllegalArgumentException("The JDBC url parameter " + name
+                                + " has no R2DBC equivalent, set " + ReactiveConfiguration.PREFIX + ".url instead");
+                    }
+                }
+            }
+        }
+        if (sslMode == null) {
+            // The defaults of the JDBC driver: ssl (or ssl=true) verifies the server, otherwise TLS is preferred
+            sslMode = ssl != null && !ssl.equals("false") ? "verify-full" : "prefer";
+        }
+
+        StringBuilder url = new StringBuilder("r2dbc:")
+                .append(jdbcUrl, JDBC_PREFIX.length(), query < 0 ? jdbcUrl.length() : query)
+                .append("?sslMode=").append(encode(sslMode));
+        parameters.forEach((name, value) -> url.append('&').append(name).append('=').append(encode(value)));
+        return url.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+}
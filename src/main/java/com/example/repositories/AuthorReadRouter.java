@@ -0,0 +1,62 @@
+package com.example.repositories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.transaction.TransactionOperations;
+import jakarta.inject.Singleton;
+
+import java.sql.Connection;
+
+/**
+ * Routes the author reads to the replica when it is enabled and fresh enough, and to the primary otherwise.
+ * <p>
+ * Reads outside a transaction or inside a read-only one go to the replica. Reads inside a read-write
+ * transaction stay on the primary so they see the writes of that transaction, as does everything when the
+ * {@link ReplicaLagMonitor} reports the replica as late or unreachable. The {@code author.reads} counter,
+ * tagged with the {@code datasource}, counts where the reads went.
+ * </p>
+ */
+@Singleton
+public class AuthorReadRouter {
+
+    private final AuthorRepository primary;
+    @Nullable
+    private final ReplicaAuthorRepository replica;
+    @Nullable
+    private final ReplicaLagMonitor lagMonitor;
+    private final TransactionOperations<Connection> transactionOperations;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public AuthorReadRouter(AuthorRepository primary,
+                            @Nullable ReplicaAuthorRepository replica,
+                            @Nullable ReplicaLagMonitor lagMonitor,
+                            TransactionOperations<Connection> transactionOperations,
+                            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.transactionOperations = transactionOperations;
+        this.primaryReads = meterRegistry.counter("author.reads", "datasource", "default");
+        this.replicaReads = meterRegistry.counter("author.reads", "datasource", ReplicaConfiguration.DATASOURCE);
+    }
+
+    /**
+     * @return The repository to read the authors from
+     */
+    public AuthorReads reads() {
+        if (replica == null || lagMonitor == null || !lagMonitor.isAvailable() || inReadWriteTransaction()) {
+            primaryReads.increment();
+            return primary;
+        }
+        replicaReads.increment();
+        return replica;
+    }
+
+    private boolean inReadWriteTransaction() {
+        return transactionOperations.findTransactionStatus()
+                .map(status -> !status.getTransactionDefinition().isReadOnly().orElse(false))
+                .orElse(false);
+    }
+}
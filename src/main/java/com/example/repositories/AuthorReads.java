@@ -0,0 +1,130 @@
+package com.example.repositories;
+
+import com.example.entities.AuthorEntity;
+import com.example.jfr.AuthorMappingEvent;
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
+import com.example.model.Book;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.tracing.annotation.NewSpan;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The author queries that only read, implemented both by the {@link AuthorRepository} on the primary
+ * and by the {@link ReplicaAuthorRepository}.
+ */
+public interface AuthorReads {
+
+    /**
+     * Limit used to load all the books of an author.
+     */
+    int ALL_BOOKS = Integer.MAX_VALUE;
+
+    /**
+     * The SQL of {@link #findByName(String)}, shared with the reactive repository, see {@link NamedParameters}.
+     */
+    String FIND_BY_NAME = "SELECT id, name, date_created FROM author WHERE name = :name";
+
+    /**
+     * The SQL of {@link #findBooks(long, int, int)}, shared with the reactive repository.
+     */
+    String FIND_BOOKS = """
+            SELECT title, pages FROM book WHERE author_id = :authorId ORDER BY title, id LIMIT :limit OFFSET :offset""";
+
+    /**
+     * The SQL of {@link #searchByName(String, String, int, int)}, shared with the reactive repository.
+     */
+    String SEARCH_BY_NAME = """
+            SELECT id, name FROM (
+                SELECT a.id, a.name, lower(a.name) LIKE :prefix AS starts, coalesce(s.book_count, 0) AS books,
+                       word_similarity(:query, lower(a.name)) AS similarity
+                FROM author a LEFT JOIN author_stats s ON s.author_id = a.id
+                WHERE lower(a.name) LIKE :prefix OR lower(a.name) %> :query) m
+            ORDER BY starts DESC, CASE WHEN starts THEN books END DESC, CASE WHEN NOT starts THEN similarity END DESC,
+                     name, id
+            LIMIT :limit OFFSET :offset""";
+
+    /**
+     * Find an author by name.
+     *
+     * @param name The author name
+     * @return An optional wrapping the author with all their books, ordered by title
+     */
+    default Optional<Author> findAuthorByName(@NotBlank String name) {
+        return this.findAuthorByName(name, 0, ALL_BOOKS);
+    }
+
+    /**
+     * Find an author by name with a page of their books.
+     * <p>
+     * The author and the books are read with two queries instead of a fetch join: the books query
+     * can then be ordered and paginated in SQL, and does not repeat the author columns on every row.
+     *
+     * @param name   The author name
+     * @param offset The number of books to skip
+     * @param limit  The maximum number of books to return
+     * @return An optional wrapping the author with the requested books, ordered by title
+     */
+    default Optional<Author> findAuthorByName(@NotBlank String name,
+                                              @PositiveOrZero int offset,
+                                              @Positive int limit) {
+        // The mapping is the books projection
+        return this.findByName(name)
+                .map(author -> AuthorMappingEvent.record(() ->
+                        new Author(author.id(), author.name(), findBooks(author.id(), offset, limit))));
+    }
+
+    @NewSpan
+    @Query(FIND_BY_NAME)
+    Optional<AuthorEntity> findByName(@NotBlank String name);
+
+    /**
+     * Find a page of the books of an author, ordered by title (and id for books with the same title).
+     * Served by the {@code book_author_id_title_idx} index.
+     *
+     * @param authorId The author id
+     * @param offset   The number of books to skip
+     * @param limit    The maximum number of books to return
+     * @return The books
+     */
+    @NewSpan
+    @Query(FIND_BOOKS)
+    List<Book> findBooks(long authorId, int offset, int limit);
+
+    /**
+     * Find the book count and total pages of an author, read from {@code author_stats} which the triggers of
+     * {@code book} keep up to date: two primary key lookups whatever the number of books.
+     *
+     * @param authorId The author id
+     * @return The stats, zero for an author without books, empty if the author does not exist
+     */
+    @NewSpan
+    @Query("""
+            SELECT a.id AS author_id, coalesce(s.book_count, 0) AS book_count, coalesce(s.total_pages, 0) AS total_pages
+            FROM author a LEFT JOIN author_stats s ON s.author_id = a.id
+            WHERE a.id = :authorId""")
+    Optional<AuthorStats> findStats(long authorId);
+
+    /**
+     * Search authors whose name starts with the given prefix or is similar to the given query, ignoring
+     * case. Prefix matches come first, most books first as in {@link AuthorRepository#findMostProlific(int)},
+     * so the pages that follow a first page answered by the prefix index line up with it. The rest come by
+     * decreasing word similarity (pg_trgm) with the query, at least {@code pg_trgm.word_similarity_threshold}.
+     * Both conditions are served by the {@code author_name_trgm_idx} index.
+     *
+     * @param query  The lower case query
+     * @param prefix The lower case query with the {@code LIKE} wildcards escaped, followed by {@code %}
+     * @param offset The number of authors to skip
+     * @param limit  The maximum number of authors to return
+     * @return The matching authors, best match first
+     */
+    @NewSpan
+    @Query(SEARCH_BY_NAME)
+    List<AuthorMatch> searchByName(String query, String prefix, int offset, int limit);
+}
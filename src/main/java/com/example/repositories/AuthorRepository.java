@@ -1,52 +1,72 @@
 package com.example.repositories;
 
 import com.example.entities.AuthorEntity;
+import com.example.jfr.AuthorMappingEvent;
+import com.example.jfr.RecordQueries;
 import com.example.model.Author;
-import io.micronaut.data.annotation.Join;
+import com.example.model.AuthorMatch;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 import io.micronaut.validation.Validated;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Author repository for Postgres database.
+ * <p>
+ * Reads that can be served by a replica are declared in {@link AuthorReads}, see {@link AuthorReadRouter}.
  */
 @Validated
+@RecordQueries
 @JdbcRepository(dialect = Dialect.POSTGRES)
-public interface AuthorRepository extends CrudRepository<AuthorEntity, Long> {
+public interface AuthorRepository extends CrudRepository<AuthorEntity, Long>, AuthorReads {
+
+    /**
+     * Insert an author, or select the existing one with the same name, in a single statement that writes nothing
+     * for a duplicate, with whether it was created. Executed by the blocking and reactive services, see
+     * {@link NamedParameters}.
+     */
+    String INSERT_OR_SELECT = """
+            WITH inserted AS (
+                INSERT INTO author (name, date_created) VALUES (:name, now())
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name, date_created)
+            SELECT id, name, date_created, true AS created FROM inserted
+            UNION ALL
+            SELECT id, name, date_created, false FROM author
+            WHERE name = :name AND NOT EXISTS (SELECT 1 FROM inserted)""";
 
     /**
      * Map an {@link AuthorEntity} to a {@link Author}.
      *
      * @param entity The author entity
      * @return The author with the books
+     * @throws NullPointerException if the entity was not saved yet, so has no id
      */
     static Author dtoOfEntity(@NotNull AuthorEntity entity) {
-        return new Author(
-                entity.id(),
+        return AuthorMappingEvent.record(() -> new Author(
+                Objects.requireNonNull(entity.id(), "The author is not saved"),
                 entity.name(),
-                entity.books().stream()
-                        .map(BookRepository::dtoOfEntity)
-                        .collect(Collectors.toList())
-        );
+                BookRepository.dtoOfEntities(entity.books())
+        ));
     }
 
     /**
-     * Find an author by name.
+     * Find the authors with the most books, used as the hottest names of the in-process prefix index. They are
+     * ranked like the prefix matches of {@link #searchByName(String, String, int, int)}.
      *
-     * @param name The author name
-     * @return An optional wrapping the author with their books
+     * @param limit The maximum number of authors to return
+     * @return The authors with books, most books first
      */
-    default Optional<Author> findAuthorByName(@NotBlank String name) {
-        return this.findByName(name).map(AuthorRepository::dtoOfEntity);
-    }
-
-    @Join(value = "books", type = Join.Type.LEFT_FETCH)
-    Optional<AuthorEntity> findByName(@NotBlank String name);
+    @Query("""
+            SELECT a.id, a.name FROM author a JOIN author_stats s ON s.author_id = a.id
+            WHERE s.book_count > 0
+            ORDER BY s.book_count DESC, a.name, a.id
+            LIMIT :limit""")
+    List<AuthorMatch> findMostProlific(int limit);
 
 }
@@ -1,20 +1,48 @@
 package com.example.repositories;
 
+import com.example.concurrencylimit.ConcurrencyLimited;
 import com.example.entities.BookEntity;
+import com.example.jfr.RecordQueries;
 import com.example.model.Book;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 import io.micronaut.validation.Validated;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Book repository for Postgres database.
  */
 @Validated
+@RecordQueries
 @JdbcRepository(dialect = Dialect.POSTGRES)
 public interface BookRepository extends CrudRepository<BookEntity, Long> {
 
+    /**
+     * Add a book to an author in a single statement, once per idempotency key like the write-behind batches.
+     * Guarded by the {@code jdbc} concurrency limit, as the synchronous path of
+     * {@link com.example.services.AuthorService#addBookToAuthor}.
+     *
+     * @param title          The title
+     * @param pages          The number of pages
+     * @param authorId       The author id
+     * @param idempotencyKey The key of the book, {@code null} to add it whatever the books already added
+     * @return 1 if the book was added, 0 if the author does not exist or the key was already used
+     */
+    @ConcurrencyLimited("jdbc")
+    @Query("""
+            INSERT INTO book (title, pages, date_created, author_id, idempotency_key)
+            SELECT :title, :pages, now(), id, :idempotencyKey FROM author WHERE id = :authorId
+            ON CONFLICT (idempotency_key) DO NOTHING""")
+    int addOnce(String title, int pages, long authorId, @Nullable UUID idempotencyKey);
+
     /**
      * Map a {@link BookEntity} to a {@link Book}.
      *
@@ -24,4 +52,26 @@ public interface BookRepository extends CrudRepository<BookEntity, Long> {
     static Book dtoOfEntity(@NotNull BookEntity entity) {
         return new Book(entity.title(), entity.pages());
     }
+
+    /**
+     * Map a collection of {@link BookEntity} to a list of {@link Book}.
+     * <p>
+     * Used for the authors read with their books, see {@link AuthorRepository#dtoOfEntity}. It avoids
+     * the stream pipeline and copies the books into an exactly sized array: the only allocations are the books, the
+     * array and its list view.
+     *
+     * @param entities The book entities, may be {@code null} when the books were not fetched
+     * @return The books, in iteration order of the collection
+     */
+    static List<Book> dtoOfEntities(@Nullable Collection<BookEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+        Book[] books = new Book[entities.size()];
+        int i = 0;
+        for (BookEntity entity : entities) {
+            books[i++] = dtoOfEntity(entity);
+        }
+        return Arrays.asList(books);
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.repositories;
+
+import com.example.entities.MovieEntity;
+import com.example.jfr.RecordQueries;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.GenericRepository;
+import io.micronaut.validation.Validated;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Movie repository for Postgres database. The movies are written by {@code MovieStore}.
+ */
+@Validated
+@RecordQueries
+@JdbcRepository(dialect = Dialect.POSTGRES)
+public interface MovieRepository extends GenericRepository<MovieEntity, String> {
+
+    /**
+     * @param titleKey The normalized title
+     * @return The stored movie
+     */
+    Optional<MovieEntity> findById(@NotBlank String titleKey);
+
+    /**
+     * Find a movie by its key, or by a query variant of its title recorded in {@code movie_alias}.
+     *
+     * @param key The normalized title, as requested
+     * @return The stored movie
+     */
+    @Query("""
+            SELECT m.* FROM movie m
+            WHERE m.title_key = coalesce((SELECT a.title_key FROM movie_alias a WHERE a.alias_key = :key), :key)""")
+    Optional<MovieEntity> findByKeyOrAlias(@NotBlank String key);
+
+    /**
+     * Find the most requested movies, preloaded in memory at startup.
+     *
+     * @param limit The maximum number of movies to return
+     * @return The movies, most requested first
+     */
+    @Query("SELECT * FROM movie ORDER BY hits DESC LIMIT :limit")
+    List<MovieEntity> findHottest(int limit);
+}
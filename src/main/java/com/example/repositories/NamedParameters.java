@@ -0,0 +1,71 @@
+package com.example.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the named parameters ({@code :name}) of the SQL shared with the {@code @Query} methods for the
+ * statements executed outside Micronaut Data, so each statement is written once whatever runs it.
+ * <p>
+ * The names are checked against the order in which the caller binds the arguments, so a shared statement whose
+ * parameters change fails when the class executing it is loaded instead of binding the wrong values.
+ */
+public final class NamedParameters {
+
+    // Not preceded by a colon so that the :: casts are left alone
+    private static final Pattern NAMED = Pattern.compile("(?<!:):([a-zA-Z]\\w*)");
+
+    private NamedParameters() {
+    }
+
+    /**
+     * Number the parameters like PostgreSQL does ({@code $1}, {@code $2}...), for R2DBC. A name used several times
+     * keeps its number, so is bound once.
+     *
+     * @param sql        The statement with named parameters
+     * @param parameters The parameter names, in the order of their first occurrence
+     * @return The statement with numbered parameters
+     * @throws IllegalArgumentException if the parameters are not those of the statement in this order
+     */
+    public static String numbered(String sql, String... parameters) {
+        List<String> names = new ArrayList<>();
+        String numbered = NAMED.matcher(sql).replaceAll(match -> {
+            String name = match.group(1);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                names.add(name);
+                index = names.size() - 1;
+            }
+            return "\\$" + (index + 1);
+        });
+        check(sql, names, parameters);
+        return numbered;
+    }
+
+    /**
+     * Replace each parameter with a {@code ?}, for JDBC.
+     *
+     * @param sql        The statement with named parameters
+     * @param parameters The parameter names, one per occurrence in order
+     * @return The statement with positional parameters
+     * @throws IllegalArgumentException if the parameters are not those of the statement in this order
+     */
+    public static String positional(String sql, String... parameters) {
+        List<String> names = new ArrayList<>();
+        String positional = NAMED.matcher(sql).replaceAll(match -> {
+            names.add(match.group(1));
+            return "?";
+        });
+        check(sql, names, parameters);
+        return positional;
+    }
+
+    private static void check(String sql, List<String> names, String[] parameters) {
+        if (!names.equals(Arrays.asList(parameters))) {
+            throw new IllegalArgumentException("The parameters of " + sql + " are " + names + ", not "
+                    + Arrays.toString(parameters));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.repositories;
+
+import com.example.entities.AuthorEntity;
+import com.example.jfr.RecordQueries;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.GenericRepository;
+import io.micronaut.validation.Validated;
+
+/**
+ * The author reads on the {@code replica} datasource. Only exists when {@code replica.enabled} is set.
+ */
+@Validated
+@RecordQueries
+@JdbcRepository(dataSource = ReplicaConfiguration.DATASOURCE, dialect = Dialect.POSTGRES)
+@Requires(property = ReplicaConfiguration.ENABLED, value = "true")
+public interface ReplicaAuthorRepository extends GenericRepository<AuthorEntity, Long>, AuthorReads {
+}
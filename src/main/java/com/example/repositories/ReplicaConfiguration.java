@@ -0,0 +1,64 @@
+package com.example.repositories;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica configuration. The replica itself is configured as the {@code replica} datasource:
+ * <pre>
+ * datasources:
+ *   replica:
+ *     url: jdbc:postgresql://replica:5432/demo
+ *     ...
+ * replica:
+ *   enabled: true
+ *   max-lag: 5s
+ * </pre>
+ */
+@ConfigurationProperties(ReplicaConfiguration.PREFIX)
+public class ReplicaConfiguration {
+
+    public static final String PREFIX = "replica";
+    public static final String ENABLED = PREFIX + ".enabled";
+    public static final String DATASOURCE = "replica";
+
+    /**
+     * Whether reads are routed to the {@code replica} datasource.
+     */
+    private boolean enabled;
+
+    /**
+     * Replication lag above which reads go back to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the replication lag is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.repositories;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Measures the replication lag of the replica, and tells whether it is fresh enough to serve reads.
+ * <p>
+ * The lag is the age of the last replayed transaction, or zero when the replica has replayed everything it
+ * received (an idle primary does not make the replica look late). Having replayed everything only means the
+ * replica is up to date while its WAL receiver is streaming and has heard from the primary within
+ * {@code wal_receiver_timeout}: a replica cut off from the primary is unavailable, like one that can't be
+ * queried, until the next successful check. The status of the WAL receiver is only visible to a user with the
+ * {@code pg_read_all_stats} (or {@code pg_monitor}) role. A datasource that is not a standby, in recovery, has no
+ * lag. The lag is published as the {@code replica.lag} gauge, in seconds.
+ * </p>
+ */
+@Singleton
+@Requires(property = ReplicaConfiguration.ENABLED, value = "true")
+public class ReplicaLagMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // NULL when the replica is not streaming from the primary, or has not heard from it for too long
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN r.status IS DISTINCT FROM 'streaming'
+                             OR r.last_msg_receipt_time
+                                < now() - nullif(current_setting('wal_receiver_timeout'), '0')::interval THEN NULL
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            FROM (SELECT 1) AS one LEFT JOIN pg_stat_wal_receiver r ON true""";
+
+    private final DataSource dataSource;
+    private final Duration maxLag;
+    @Nullable
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(@Named(ReplicaConfiguration.DATASOURCE) DataSource dataSource,
+                             ReplicaConfiguration configuration,
+                             MeterRegistry meterRegistry) {
+        // The injected datasource only hands out the connection of the current transaction
+        this.dataSource = DelegatingDataSource.unwrapDataSource(dataSource);
+        this.maxLag = configuration.getMaxLag();
+        Gauge.builder("replica.lag", this, monitor -> {
+                    Duration current = monitor.lag;
+                    return current != null ? current.toMillis() / 1000.0 : Double.NaN;
+                })
+                .baseUnit("seconds")
+                .description("Replication lag of the read replica, NaN while it is unreachable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Whether reads can be served by the replica
+     */
+    public boolean isAvailable() {
+        Duration current = lag;
+        return current != null && current.compareTo(maxLag) <= 0;
+    }
+
+    /**
+     * Measure the replication lag.
+     */
+    @Scheduled(fixedDelay = "${replica.lag-check-interval:1s}")
+    void check() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double seconds = resultSet.getDouble(1);
+            if (resultSet.wasNull()) {
+                if (lag != null) {
+                    LOG.warn("Replica not streaming from the primary, reading from the primary");
+                }
+                record(null);
+            } else {
+                record(Duration.ofMillis((long) (seconds * 1000)));
+            }
+        } catch (SQLException e) {
+            if (lag != null) {
+                LOG.warn("Replica unreachable, reading from the primary", e);
+            }
+            record(null);
+        }
+    }
+
+    /**
+     * @param lag The replication lag, or {@code null} if the replica is unreachable
+     */
+    void record(@Nullable Duration lag) {
+        this.lag = lag;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.security;
 
+import com.example.jfr.AuthorizationEvent;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.tracing.annotation.NewSpan;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,9 +16,17 @@ public class SecurityServiceImpl implements SecurityService {
     private static final Logger LOG = LoggerFactory.getLogger(SecurityServiceImpl.class);
 
     @Override
+    @NewSpan
     public boolean canUserAccess(@Nullable String username) {
         LOG.debug(" ================ Using REAL security service ================ ");
         // Only admin can access
-        return username != null && username.equals("admin");
+        boolean granted = username != null && username.equals("admin");
+        AuthorizationEvent event = new AuthorizationEvent();
+        if (event.shouldCommit()) {
+            event.granted = granted;
+            event.user = username;
+            event.commit();
+        }
+        return granted;
     }
 }
@@ -0,0 +1,108 @@
+package com.example.services;
+
+import com.example.model.AuthorMatch;
+import com.example.repositories.AuthorRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process prefix index over the hottest author names, to answer typeahead searches without a database
+ * round trip.
+ * <p>
+ * It holds the {@code max-size} most prolific authors, reloaded every {@code refresh-interval}. A search is
+ * only answered from memory when the hot names alone fill the first page. The database ranks prefix matches
+ * the same way, most books first, so the following pages it serves neither repeat nor skip an author, short
+ * of the books added since the last reload.
+ * </p>
+ * <pre>
+ * authors:
+ *   search:
+ *     prefix-index:
+ *       enabled: true
+ *       max-size: 10000
+ *       refresh-interval: 10m
+ * </pre>
+ */
+@Singleton
+@Requires(property = "authors.search.prefix-index.enabled", value = "true")
+public class AuthorPrefixIndex {
+
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], new AuthorMatch[0]);
+
+    private final AuthorRepository authorRepository;
+    private final int maxSize;
+    private volatile Snapshot snapshot = EMPTY;
+
+    public AuthorPrefixIndex(AuthorRepository authorRepository,
+                             @Value("${authors.search.prefix-index.max-size:10000}") int maxSize) {
+        this.authorRepository = authorRepository;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reload the hottest names from the database.
+     */
+    @Scheduled(fixedDelay = "${authors.search.prefix-index.refresh-interval:10m}")
+    void refresh() {
+        AuthorMatch[] byRank = authorRepository.findMostProlific(maxSize).toArray(new AuthorMatch[0]);
+        Integer[] order = new Integer[byRank.length];
+        String[] names = new String[byRank.length];
+        for (int rank = 0; rank < byRank.length; rank++) {
+            order[rank] = rank;
+            names[rank] = byRank[rank].getName().toLowerCase(Locale.ROOT);
+        }
+        Arrays.sort(order, Comparator.comparing(rank -> names[rank]));
+
+        String[] keys = new String[byRank.length];
+        int[] ranks = new int[byRank.length];
+        for (int i = 0; i < byRank.length; i++) {
+            keys[i] = names[order[i]];
+            ranks[i] = order[i];
+        }
+        snapshot = new Snapshot(keys, ranks, byRank);
+    }
+
+    /**
+     * Find the hottest authors whose name starts with the given prefix.
+     *
+     * @param prefix The lower case prefix
+     * @param limit  The number of authors needed
+     * @return The {@code limit} most popular matching authors, or an empty list if the index has fewer matches
+     */
+    List<AuthorMatch> find(String prefix, int limit) {
+        Snapshot current = snapshot;
+        int from = Arrays.binarySearch(current.keys, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < current.keys.length && current.keys[to].startsWith(prefix)) {
+            to++;
+        }
+        if (to - from < limit) {
+            return List.of();
+        }
+
+        int[] ranks = Arrays.copyOfRange(current.ranks, from, to);
+        Arrays.sort(ranks);
+        AuthorMatch[] matches = new AuthorMatch[limit];
+        for (int i = 0; i < limit; i++) {
+            matches[i] = current.byRank[ranks[i]];
+        }
+        return Arrays.asList(matches);
+    }
+
+    /**
+     * Lower case names in sorted order with the popularity rank of each one (0 is the most popular), and the
+     * authors indexed by rank.
+     */
+    private record Snapshot(String[] keys, int[] ranks, AuthorMatch[] byRank) {
+    }
+}
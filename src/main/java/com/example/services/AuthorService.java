@@ -1,11 +1,18 @@
 package com.example.services;
 
 import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
+import com.example.repositories.AuthorRepository;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Author service.
@@ -13,12 +20,17 @@ import java.util.Optional;
 public interface AuthorService {
 
     /**
-     * Save an author without books.
+     * Limit used to load all the books of an author.
+     */
+    int ALL_BOOKS = AuthorRepository.ALL_BOOKS;
+
+    /**
+     * Save an author without books, or find the existing one with the same name.
      *
      * @param name The author name
-     * @return The author
+     * @return The author, and whether it was created
      */
-    Author saveAuthor(@NotBlank String name);
+    SavedAuthor saveAuthor(@NotBlank String name);
 
     /**
      * Add a new book to an exiting author.
@@ -27,6 +39,15 @@ public interface AuthorService {
      */
     void addBookToAuthor(@NotNull @Valid SaveBook saveBook);
 
+    /**
+     * Add a new book to an existing author once: adding it again with the same key, for example when retrying
+     * after a timeout, adds nothing.
+     *
+     * @param saveBook       The book
+     * @param idempotencyKey A unique key for the book, reused by its retries
+     */
+    void addBookToAuthor(@NotNull @Valid SaveBook saveBook, @NotNull UUID idempotencyKey);
+
     /**
      * Find an author by name.
      *
@@ -34,4 +55,40 @@ public interface AuthorService {
      * @return An optional wrapping the author if exists
      */
     Optional<Author> findAuthorByName(@NotBlank String name);
+
+    /**
+     * Find an author by name with a page of their books, ordered by title.
+     *
+     * @param name   The author name
+     * @param offset The number of books to skip
+     * @param limit  The maximum number of books to return
+     * @return An optional wrapping the author if exists
+     */
+    Optional<Author> findAuthorByName(@NotBlank String name, @PositiveOrZero int offset, @Positive int limit);
+
+    /**
+     * Find an author by name without their books, in a single query.
+     *
+     * @param name The author name
+     * @return An optional wrapping the author id and name if exists
+     */
+    Optional<AuthorMatch> findAuthorWithoutBooks(@NotBlank String name);
+
+    /**
+     * Find the book count and total pages of an author, without reading their books.
+     *
+     * @param authorId The author id
+     * @return An optional wrapping the stats if the author exists
+     */
+    Optional<AuthorStats> findAuthorStats(long authorId);
+
+    /**
+     * Search authors by name prefix or similarity, ignoring case. Prefix matches come first, most books first.
+     *
+     * @param query  What the user typed, e.g. {@code "stephen k"}
+     * @param offset The number of authors to skip
+     * @param limit  The maximum number of authors to return
+     * @return The matching authors, best match first
+     */
+    List<AuthorMatch> searchAuthors(@NotBlank String query, @PositiveOrZero int offset, @Positive int limit);
 }
@@ -1,58 +1,170 @@
 package com.example.services;
 
+import com.example.concurrencylimit.ConcurrencyLimited;
 import com.example.entities.AuthorEntity;
-import com.example.entities.BookEntity;
 import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
+import com.example.repositories.AuthorReadRouter;
 import com.example.repositories.AuthorRepository;
 import com.example.repositories.BookRepository;
+import com.example.repositories.NamedParameters;
+import com.example.writebehind.BookWriteBehind;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.tracing.annotation.NewSpan;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
 
 @Singleton
 public class AuthorServiceImpl implements AuthorService {
 
+    private static final String INSERT_OR_SELECT_AUTHOR =
+            NamedParameters.positional(AuthorRepository.INSERT_OR_SELECT, "name", "name");
+
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final AuthorReadRouter readRouter;
+    private final JdbcOperations jdbcOperations;
+    @Nullable
+    private final AuthorPrefixIndex prefixIndex;
+    @Nullable
+    private final BookWriteBehind writeBehind;
 
     public AuthorServiceImpl(AuthorRepository authorRepository,
-                             BookRepository bookRepository) {
+                             BookRepository bookRepository,
+                             AuthorReadRouter readRouter,
+                             JdbcOperations jdbcOperations,
+                             @Nullable AuthorPrefixIndex prefixIndex,
+                             @Nullable BookWriteBehind writeBehind) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.readRouter = readRouter;
+        this.jdbcOperations = jdbcOperations;
+        this.prefixIndex = prefixIndex;
+        this.writeBehind = writeBehind;
     }
 
     @Override
     @Transactional
-    public Author saveAuthor(@NotBlank String name) {
-        AuthorEntity authorEntity = authorRepository.save(new AuthorEntity(name));
-        // TODO: Error handling
-        return AuthorRepository.dtoOfEntity(authorEntity);
+    @ConcurrencyLimited("jdbc")
+    @NewSpan
+    public SavedAuthor saveAuthor(@NotBlank String name) {
+        // A single round trip whether the author is new or not, and a duplicate writes nothing. The existing row
+        // is read from the snapshot of the statement, so it is missing when a concurrent transaction inserted
+        // the name after the statement started: the next statement sees it.
+        SavedAuthor saved = jdbcOperations.prepareStatement(INSERT_OR_SELECT_AUTHOR, statement -> {
+            statement.setString(1, name);
+            statement.setString(2, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                AuthorEntity authorEntity = jdbcOperations.readEntity(resultSet, AuthorEntity.class);
+                return new SavedAuthor(AuthorRepository.dtoOfEntity(authorEntity), resultSet.getBoolean("created"));
+            }
+        });
+        if (saved == null) {
+            AuthorEntity authorEntity = authorRepository.findByName(name).orElseThrow();
+            saved = new SavedAuthor(AuthorRepository.dtoOfEntity(authorEntity), false);
+        }
+        return saved;
     }
 
+    // Not transactional: the book is added by a single statement, and no connection is held while the
+    // write-behind log is forced to disk. Not limited either: BookRepository.addOnce is, so the jdbc limit does
+    // not learn the latency of the log instead of the database's
     @Override
-    @Transactional
+    @NewSpan
     public void addBookToAuthor(@NotNull @Valid SaveBook saveBook) {
-        Optional<AuthorEntity> optAuthor = authorRepository.findById(saveBook.getAuthorId());
+        if (writeBehind != null) {
+            writeBehind.submit(saveBook);
+            return;
+        }
+        addBook(saveBook, null);
+    }
 
-        if (optAuthor.isEmpty()) {
-            // TODO: Error handling (exercise for the reader).
-            //  Throw an exception and create an exception handler to return 404.
+    @Override
+    @NewSpan
+    public void addBookToAuthor(@NotNull @Valid SaveBook saveBook, @NotNull UUID idempotencyKey) {
+        if (writeBehind != null) {
+            writeBehind.submit(idempotencyKey, saveBook);
             return;
         }
+        addBook(saveBook, idempotencyKey);
+    }
 
-        AuthorEntity author = optAuthor.get();
-        BookEntity bookEntity = new BookEntity(saveBook.getTitle(), saveBook.getPages(), author);
-        bookRepository.save(bookEntity);
+    private void addBook(SaveBook saveBook, @Nullable UUID idempotencyKey) {
+        int added = bookRepository.addOnce(saveBook.getTitle(), saveBook.getPages(), saveBook.getAuthorId(),
+                idempotencyKey);
+
+        if (added == 0 && idempotencyKey == null) {
+            // The author does not exist.
+            // TODO: Error handling (exercise for the reader).
+            //  Throw an exception and create an exception handler to return 404.
+        }
     }
 
     @Override
+    @ConcurrencyLimited("jdbc")
+    @NewSpan
     public Optional<Author> findAuthorByName(@NotBlank String name) {
         // Not writting test for this because it's part of the "Global Mocking example". Leaving writting the
         // test as an exercise for the reader... :-P
-        return authorRepository.findAuthorByName(name);
+        return readRouter.reads().findAuthorByName(name);
+    }
+
+    @Override
+    @ConcurrencyLimited("jdbc")
+    @NewSpan
+    public Optional<Author> findAuthorByName(@NotBlank String name, @PositiveOrZero int offset, @Positive int limit) {
+        return readRouter.reads().findAuthorByName(name, offset, limit);
+    }
+
+    @Override
+    @ConcurrencyLimited("jdbc")
+    @NewSpan
+    public Optional<AuthorMatch> findAuthorWithoutBooks(@NotBlank String name) {
+        return readRouter.reads().findByName(name)
+                .map(author -> new AuthorMatch(author.id(), author.name()));
+    }
+
+    @Override
+    @ConcurrencyLimited("jdbc")
+    @NewSpan
+    public Optional<AuthorStats> findAuthorStats(long authorId) {
+        return readRouter.reads().findStats(authorId);
+    }
+
+    // Not limited: the prefix index answers hot prefixes in memory, and those latencies would pass for a
+    // healthy database
+    @Override
+    @NewSpan
+    public List<AuthorMatch> searchAuthors(@NotBlank String query, @PositiveOrZero int offset, @Positive int limit) {
+        String normalized = query.strip().toLowerCase(Locale.ROOT);
+        if (prefixIndex != null && offset == 0) {
+            List<AuthorMatch> hot = prefixIndex.find(normalized, limit);
+            if (!hot.isEmpty()) {
+                return hot;
+            }
+        }
+        return readRouter.reads().searchByName(normalized, escapeLike(normalized) + '%', offset, limit);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
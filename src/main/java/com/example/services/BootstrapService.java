@@ -2,6 +2,7 @@ package com.example.services;
 
 import com.example.model.Author;
 import com.example.repositories.AuthorRepository;
+import com.example.training.TrainingRun;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.env.Environment;
 import io.micronaut.context.event.StartupEvent;
@@ -9,7 +10,7 @@ import io.micronaut.runtime.event.annotation.EventListener;
 import jakarta.inject.Singleton;
 
 @Singleton
-@Requires(notEnv = Environment.TEST)
+@Requires(notEnv = {Environment.TEST, TrainingRun.ENVIRONMENT})
 public class BootstrapService {
 
     private final AuthorService authorService;
@@ -24,7 +25,7 @@ public class BootstrapService {
     @EventListener
     void init(StartupEvent event) {
         if (authorRepository.count() == 0) {
-            Author stephenKing = authorService.saveAuthor("Stephen King");
+            Author stephenKing = authorService.saveAuthor("Stephen King").author();
             authorService.addBookToAuthor(new SaveBook("Carrie", 199, stephenKing.getId()));
             authorService.addBookToAuthor(new SaveBook("The Stand", 823, stephenKing.getId()));
         }
@@ -5,12 +5,14 @@ import io.micronaut.serde.annotation.Serdeable;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 @Serdeable
 @Introspected
 public class SaveBook {
 
     @NotBlank
+    @Size(max = 255)
     private final String title;
 
     @Min(1)
@@ -19,7 +21,7 @@ public class SaveBook {
     @NotNull
     private final Long authorId;
 
-    public SaveBook(@NotBlank String title,
+    public SaveBook(@NotBlank @Size(max = 255) String title,
                     @Min(1) int pages,
                     @NotNull Long authorId) {
         this.title = title;
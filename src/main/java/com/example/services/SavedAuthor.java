@@ -0,0 +1,12 @@
+package com.example.services;
+
+import com.example.model.Author;
+
+/**
+ * The author returned by {@link AuthorService#saveAuthor(String)}.
+ *
+ * @param author  The author, without books
+ * @param created {@code true} if the author was inserted, {@code false} if it already existed
+ */
+public record SavedAuthor(Author author, boolean created) {
+}
@@ -0,0 +1,140 @@
+package com.example.tracing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.zaxxer.hikari.pool.HikariPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the wait for a Hikari connection as a {@code hikari.acquire} span, a child of the span that needed the
+ * connection, usually a repository call.
+ * <p>
+ * Hikari reports how long {@code getConnection()} took to its {@link IMetricsTracker}, on the thread that asked
+ * for the connection, so the span is recorded after the fact with its start time moved back. Nothing is recorded
+ * when the current trace is not sampled.
+ * </p>
+ * <p>
+ * The pool already has the Micrometer tracker Micronaut gave it with the meter registry, and Hikari refuses a
+ * tracker factory next to a registry. So the tracker of the running pool is replaced by one that records the span
+ * and hands every measure to a Micrometer tracker, and the {@code hikaricp.*} meters keep being published.
+ * </p>
+ */
+@Singleton
+public class ConnectionAcquireTracing implements BeanCreatedEventListener<DataSource> {
+
+    static final String SPAN_NAME = "hikari.acquire";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionAcquireTracing.class);
+
+    // The OpenTelemetry SDK is only built on the first connection, not while the datasources are created
+    private final BeanProvider<OpenTelemetry> openTelemetry;
+
+    public ConnectionAcquireTracing(BeanProvider<OpenTelemetry> openTelemetry) {
+        this.openTelemetry = openTelemetry;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        DataSource dataSource = event.getBean();
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                // Micronaut starts the pool when it creates the datasource
+                if (hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+                    MetricsTrackerFactory metrics = hikari.getMetricsTrackerFactory();
+                    if (metrics == null && hikari.getMetricRegistry() instanceof MeterRegistry registry) {
+                        metrics = new MicrometerMetricsTrackerFactory(registry);
+                    }
+                    pool.setMetricsTrackerFactory(new TrackerFactory(metrics));
+                } else {
+                    LOG.info("Pool {} is not started, its connection waits are not traced", hikari.getPoolName());
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("Unable to trace the connection waits of {}", dataSource, e);
+        }
+        return dataSource;
+    }
+
+    private final class TrackerFactory implements MetricsTrackerFactory {
+
+        private final MetricsTrackerFactory metrics;
+
+        TrackerFactory(MetricsTrackerFactory metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            IMetricsTracker tracker = metrics == null ? new IMetricsTracker() { } : metrics.create(poolName, poolStats);
+            return new Tracker(poolName, tracker);
+        }
+    }
+
+    private final class Tracker implements IMetricsTracker {
+
+        private final String poolName;
+        private final IMetricsTracker metrics;
+        private volatile Tracer tracer;
+
+        Tracker(String poolName, IMetricsTracker metrics) {
+            this.poolName = poolName;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            metrics.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            metrics.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            metrics.recordConnectionTimeout();
+        }
+
+        @Override
+        public void close() {
+            metrics.close();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            metrics.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            if (!Span.current().getSpanContext().isSampled()) {
+                return;
+            }
+            if (tracer == null) {
+                tracer = openTelemetry.get().getTracer("com.example");
+            }
+            Instant instant = Instant.now();
+            long now = TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+            tracer.spanBuilder(SPAN_NAME)
+                    .setAttribute("db.client.connection.pool.name", poolName)
+                    .setStartTimestamp(now - elapsedAcquiredNanos, TimeUnit.NANOSECONDS)
+                    .startSpan()
+                    .end(now, TimeUnit.NANOSECONDS);
+        }
+    }
+}
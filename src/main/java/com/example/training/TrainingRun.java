@@ -0,0 +1,59 @@
+package com.example.training;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Drives the AOT cache training run done while building the Docker image.
+ * <p>
+ * Once the server is up it sends a few requests to itself, so the classes of the request path are
+ * loaded and recorded as well, and then shuts the application down. There is no database at image
+ * build time, so the author lookups fail: that still loads everything up to the JDBC driver.
+ */
+@Singleton
+@Requires(env = TrainingRun.ENVIRONMENT)
+public class TrainingRun {
+
+    public static final String ENVIRONMENT = "training";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TrainingRun.class);
+
+    private static final List<String> PATHS = List.of(
+            "/swagger/demo-0.1.yml",
+            "/authors/by-name?author=Stephen%20King&username=admin",
+            "/authors/by-name?author=Stephen%20King");
+
+    private final ApplicationContext applicationContext;
+
+    public TrainingRun(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @EventListener
+    void onStartup(ServerStartupEvent event) {
+        try (HttpClient client = HttpClient.create(event.getSource().getURL())) {
+            BlockingHttpClient blocking = client.toBlocking();
+            for (String path : PATHS) {
+                try {
+                    blocking.exchange(HttpRequest.GET(path));
+                } catch (HttpClientException e) {
+                    LOG.debug("Training request to {} failed", path, e);
+                }
+            }
+        }
+        LOG.info("Training run finished, stopping the application");
+        // Stop from another thread: the startup event is still being published on this one
+        Thread.ofPlatform().start(applicationContext::stop);
+    }
+}
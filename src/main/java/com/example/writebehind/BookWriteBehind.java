@@ -0,0 +1,230 @@
+package com.example.writebehind;
+
+import com.example.exceptions.WriteBehindQueueFullException;
+import com.example.services.SaveBook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.TransactionOperations;
+import io.micronaut.validation.Validated;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Write-behind mode for the book additions: books are validated and appended to a {@link BookWriteLog},
+ * then written to the database in batches by a background drain. {@code AuthorService.addBookToAuthor} hands its
+ * books to it when it is enabled.
+ * <p>
+ * Every book carries an idempotency key stored in the {@code book.idempotency_key} unique column, so a batch
+ * replayed after a crash, or a book submitted twice with the same key, is only written once. Books of an
+ * author that does not exist are dropped, like {@code AuthorService.addBookToAuthor} does.
+ * </p>
+ * <p>
+ * When a batch fails, its books are written again one transaction each. A book the database rejects for its data
+ * or a constraint (SQL states of classes 22 and 23, such as a title it cannot store) would fail on every drain and
+ * block the books after it, so it is moved to the {@code book_dead_letter} table instead. Any other failure, such
+ * as a lost connection, leaves the batch queued for the next drain.
+ * </p>
+ * Metrics: {@code write_behind.depth} (queued books), {@code write_behind.rejected} (submissions refused
+ * because the queue was full), {@code write_behind.written}, {@code write_behind.dead_lettered} and the
+ * {@code write_behind.drain} timer.
+ */
+@Singleton
+@Validated
+@Requires(property = WriteBehindConfiguration.ENABLED, value = "true")
+public class BookWriteBehind {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookWriteBehind.class);
+
+    private static final String INSERT = """
+            INSERT INTO book (title, pages, date_created, author_id, idempotency_key)
+            SELECT ?, ?, now(), id, ? FROM author WHERE id = ?
+            ON CONFLICT (idempotency_key) DO NOTHING""";
+
+    private static final String DEAD_LETTER = """
+            INSERT INTO book_dead_letter (idempotency_key, title, pages, author_id, sql_state, error, date_created)
+            VALUES (?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (idempotency_key) DO NOTHING""";
+
+    private final BookWriteLog log;
+    private final int batchSize;
+    private final TransactionOperations<Connection> transactionOperations;
+    private final JdbcOperations jdbcOperations;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter deadLettered;
+    private final Timer drainTimer;
+
+    public BookWriteBehind(WriteBehindConfiguration configuration,
+                           TransactionOperations<Connection> transactionOperations,
+                           JdbcOperations jdbcOperations,
+                           MeterRegistry meterRegistry) {
+        this.log = new BookWriteLog(configuration.getDirectory(), configuration.getCapacity(),
+                configuration.getMaxSize(), configuration.isFsync());
+        this.batchSize = configuration.getBatchSize();
+        this.transactionOperations = transactionOperations;
+        this.jdbcOperations = jdbcOperations;
+        Gauge.builder("write_behind.depth", log, BookWriteLog::size)
+                .description("Books accepted and not written to the database yet")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("write_behind.rejected");
+        this.written = meterRegistry.counter("write_behind.written");
+        this.deadLettered = meterRegistry.counter("write_behind.dead_lettered");
+        this.drainTimer = meterRegistry.timer("write_behind.drain");
+    }
+
+    /**
+     * Accept a book to be written in the background.
+     *
+     * @param saveBook The book
+     * @return The idempotency key of the book
+     * @throws WriteBehindQueueFullException if the queue is full
+     */
+    public UUID submit(@NotNull @Valid SaveBook saveBook) {
+        UUID key = UUID.randomUUID();
+        submit(key, saveBook);
+        return key;
+    }
+
+    /**
+     * Accept a book to be written in the background. Submitting the same key again, for example when
+     * retrying a request whose response was lost, writes the book only once.
+     *
+     * @param key      The idempotency key
+     * @param saveBook The book
+     * @throws WriteBehindQueueFullException if the queue is full
+     */
+    public void submit(@NotNull UUID key, @NotNull @Valid SaveBook saveBook) {
+        if (!log.offer(new BookWriteLog.Entry(key, saveBook))) {
+            rejected.increment();
+            throw new WriteBehindQueueFullException();
+        }
+    }
+
+    /**
+     * @return The number of books not written yet
+     */
+    public int depth() {
+        return log.size();
+    }
+
+    /**
+     * Write the queued books, one transaction per batch, until the queue is empty.
+     */
+    @Scheduled(fixedDelay = "${write-behind.drain-interval:100ms}")
+    synchronized void drain() {
+        BookWriteLog.Batch batch = log.peek(batchSize);
+        while (!batch.entries().isEmpty()) {
+            BookWriteLog.Batch current = batch;
+            int rejectedBooks = drainTimer.record(() -> write(current));
+            log.commit(current);
+            written.increment(current.entries().size() - rejectedBooks);
+            deadLettered.increment(rejectedBooks);
+            batch = log.peek(batchSize);
+        }
+    }
+
+    /**
+     * @return The number of books moved to the dead letters
+     */
+    private int write(BookWriteLog.Batch batch) {
+        try {
+            transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(INSERT, statement -> {
+                for (BookWriteLog.Entry entry : batch.entries()) {
+                    bind(statement, entry);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }));
+            return 0;
+        } catch (RuntimeException e) {
+            LOG.debug("Writing a batch of {} books failed, writing them one by one", batch.entries().size(), e);
+        }
+        int rejectedBooks = 0;
+        for (BookWriteLog.Entry entry : batch.entries()) {
+            if (!write(entry)) {
+                rejectedBooks++;
+            }
+        }
+        return rejectedBooks;
+    }
+
+    /**
+     * @return {@code false} if the database rejected the book, which was moved to the dead letters
+     * @throws RuntimeException if it failed for another reason, the book is written again by the next drain
+     */
+    private boolean write(BookWriteLog.Entry entry) {
+        try {
+            transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(INSERT, statement -> {
+                bind(statement, entry);
+                return statement.executeUpdate();
+            }));
+            return true;
+        } catch (RuntimeException e) {
+            SQLException rejection = rejection(e);
+            if (rejection == null) {
+                throw e;
+            }
+            LOG.warn("Book {} rejected by the database, moved to book_dead_letter", entry.key(), e);
+            transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement(DEAD_LETTER, statement -> {
+                statement.setObject(1, entry.key());
+                statement.setBytes(2, entry.book().getTitle().getBytes(StandardCharsets.UTF_8));
+                statement.setInt(3, entry.book().getPages());
+                statement.setLong(4, entry.book().getAuthorId());
+                statement.setString(5, rejection.getSQLState());
+                statement.setString(6, String.valueOf(rejection.getMessage()));
+                return statement.executeUpdate();
+            }));
+            return false;
+        }
+    }
+
+    /**
+     * @return The cause of the failure if it is a data exception or an integrity constraint violation, which
+     * writing the same book again would repeat, otherwise {@code null}
+     */
+    @Nullable
+    private static SQLException rejection(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                String state = sqlException.getSQLState();
+                return state != null && (state.startsWith("22") || state.startsWith("23")) ? sqlException : null;
+            }
+        }
+        return null;
+    }
+
+    private static void bind(PreparedStatement statement, BookWriteLog.Entry entry) throws SQLException {
+        statement.setString(1, entry.book().getTitle());
+        statement.setInt(2, entry.book().getPages());
+        statement.setObject(3, entry.key());
+        statement.setLong(4, entry.book().getAuthorId());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to write the {} queued books before shutting down, they will be written on restart",
+                    log.size(), e);
+        }
+        log.close();
+    }
+}
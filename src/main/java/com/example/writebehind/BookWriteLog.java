@@ -0,0 +1,321 @@
+package com.example.writebehind;
+
+import com.example.services.SaveBook;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Bounded, append-only queue of books stored in a local file.
+ * <p>
+ * Each record is {@code length | key | author id | pages | title | crc32}. A second file holds the offset of
+ * the first record not written to the database yet: it only moves forward once a batch is committed, so a
+ * crash replays the records after it (at-least-once). When everything has been committed the log is
+ * truncated. A torn record at the end of the log, from a crash in the middle of an append, is discarded
+ * when the log is opened.
+ * </p>
+ * <p>
+ * Under a steady load the queue is never empty, so the log is also compacted: once the committed records take
+ * more than 1 MiB (or the maximum size if smaller) and at least as much as the queued ones, the queued records
+ * are moved to the start of the log. They never overwrite themselves, so the checkpoint keeps pointing at intact
+ * records until it is reset, and the log stays under about twice the maximum size. {@link #peek(int)} and
+ * {@link #commit(Batch)} are called by a single drain.
+ * </p>
+ */
+public class BookWriteLog implements AutoCloseable {
+
+    private static final int HEADER = Integer.BYTES;
+    private static final int FIXED = 2 * Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int TRAILER = Integer.BYTES;
+    private static final long COMPACTION_THRESHOLD = 1 << 20;
+
+    private final FileChannel log;
+    private final FileChannel checkpoint;
+    private final int capacity;
+    private final long maxSize;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by lock
+    private long tail;
+    private long committed;
+    private int size;
+
+    /**
+     * A queued book.
+     *
+     * @param key  The idempotency key, used to write the book only once
+     * @param book The book
+     */
+    public record Entry(UUID key, SaveBook book) {
+    }
+
+    /**
+     * Consecutive queued books, to be passed to {@link #commit(Batch)} once written.
+     *
+     * @param entries The books
+     * @param end     Offset after the last record of the batch
+     */
+    public record Batch(List<Entry> entries, long end) {
+    }
+
+    /**
+     * Open the log in the given directory, creating it if needed.
+     *
+     * @param directory The directory of the log files
+     * @param capacity  The maximum number of queued books
+     * @param maxSize   The maximum size of the queued books in bytes
+     * @param fsync     Whether each append is forced to disk
+     */
+    public BookWriteLog(Path directory, int capacity, long maxSize, boolean fsync) {
+        this.capacity = capacity;
+        this.maxSize = maxSize;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            this.log = FileChannel.open(directory.resolve("books.log"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.checkpoint = FileChannel.open(directory.resolve("books.checkpoint"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the write-behind log in " + directory, e);
+        }
+    }
+
+    /**
+     * Append a book to the queue.
+     *
+     * @param entry The book
+     * @return {@code false} if the queue is full, by number of books or by size
+     */
+    public boolean offer(Entry entry) {
+        ByteBuffer record = encode(entry);
+        lock.lock();
+        try {
+            if (size >= capacity || tail - committed + record.remaining() > maxSize) {
+                return false;
+            }
+            long position = tail;
+            while (record.hasRemaining()) {
+                position += log.write(record, position);
+            }
+            if (fsync) {
+                log.force(false);
+            }
+            tail = position;
+            size++;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read the oldest queued books, without removing them.
+     *
+     * @param max The maximum number of books
+     * @return The books, empty if the queue is empty
+     */
+    public Batch peek(int max) {
+        long position;
+        long end;
+        lock.lock();
+        try {
+            position = committed;
+            end = tail;
+        } finally {
+            lock.unlock();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        try {
+            while (position < end && entries.size() < max) {
+                ByteBuffer payload = readRecord(position, end);
+                entries.add(decode(payload));
+                position += HEADER + payload.capacity() + TRAILER;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Batch(entries, position);
+    }
+
+    /**
+     * Remove a batch returned by {@link #peek(int)} once its books are written.
+     *
+     * @param batch The batch
+     */
+    public void commit(Batch batch) {
+        lock.lock();
+        try {
+            size -= batch.entries().size();
+            if (batch.end() == tail) {
+                // Checkpoint first: a crash before the truncation replays books already written, never loses one
+                writeCheckpoint(0);
+                log.truncate(0);
+                tail = 0;
+                committed = 0;
+            } else if (batch.end() >= Math.min(maxSize, COMPACTION_THRESHOLD) && batch.end() >= tail - batch.end()) {
+                compact(batch.end());
+            } else {
+                writeCheckpoint(batch.end());
+                committed = batch.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of queued books
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            log.close();
+            checkpoint.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer offset = ByteBuffer.allocate(Long.BYTES);
+        committed = checkpoint.read(offset, 0) == Long.BYTES ? offset.flip().getLong() : 0;
+        long end = log.size();
+        if (committed > end) {
+            committed = 0;
+        }
+        long position = committed;
+        while (position < end) {
+            ByteBuffer payload;
+            try {
+                payload = readRecord(position, end);
+            } catch (CorruptRecordException e) {
+                break;
+            }
+            position += HEADER + payload.capacity() + TRAILER;
+            size++;
+        }
+        if (position < end) {
+            log.truncate(position);
+            log.force(true);
+        }
+        tail = position;
+    }
+
+    /**
+     * Move the records after {@code from} to the start of the log. They fit before {@code from}, so a crash
+     * before the checkpoint is reset replays from the original records, and a crash after it replays the moved
+     * records and possibly some already written: never loses one.
+     */
+    private void compact(long from) throws IOException {
+        long length = tail - from;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, 64 * 1024));
+        long moved = 0;
+        while (moved < length) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), length - moved));
+            readFully(buffer, from + moved);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                moved += log.write(buffer, moved);
+            }
+        }
+        log.force(false);
+        writeCheckpoint(0);
+        log.truncate(length);
+        tail = length;
+        committed = 0;
+    }
+
+    private ByteBuffer readRecord(long position, long end) throws IOException {
+        if (end - position < HEADER) {
+            throw new CorruptRecordException();
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        readFully(header, position);
+        int length = header.flip().getInt();
+        if (length < FIXED || end - position < (long) HEADER + length + TRAILER) {
+            throw new CorruptRecordException();
+        }
+        ByteBuffer body = ByteBuffer.allocate(length + TRAILER);
+        readFully(body, position + HEADER);
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, length);
+        if ((int) crc.getValue() != body.getInt(length)) {
+            throw new CorruptRecordException();
+        }
+        return ByteBuffer.wrap(body.array(), 0, length).slice();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                throw new CorruptRecordException();
+            }
+        }
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+        while (buffer.hasRemaining()) {
+            checkpoint.write(buffer, buffer.position());
+        }
+        checkpoint.force(false);
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        byte[] title = entry.book().getTitle().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED + title.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length + TRAILER)
+                .putInt(length)
+                .putLong(entry.key().getMostSignificantBits())
+                .putLong(entry.key().getLeastSignificantBits())
+                .putLong(entry.book().getAuthorId())
+                .putInt(entry.book().getPages())
+                .put(title);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER, length);
+        return record.putInt((int) crc.getValue()).flip();
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        UUID key = new UUID(payload.getLong(), payload.getLong());
+        long authorId = payload.getLong();
+        int pages = payload.getInt();
+        String title = StandardCharsets.UTF_8.decode(payload).toString();
+        return new Entry(key, new SaveBook(title, pages, authorId));
+    }
+
+    /**
+     * A record cut short by a crash, or not matching its checksum.
+     */
+    private static final class CorruptRecordException extends IOException {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.writebehind;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Write-behind configuration for the book additions.
+ */
+@ConfigurationProperties(WriteBehindConfiguration.PREFIX)
+public class WriteBehindConfiguration {
+
+    public static final String PREFIX = "write-behind";
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * Whether books are accepted into the queue and written in the background.
+     */
+    private boolean enabled;
+
+    /**
+     * Directory of the queue files. It must survive restarts for the queue to be durable.
+     */
+    private Path directory = Path.of("write-behind");
+
+    /**
+     * Maximum number of books waiting to be written. Submissions are rejected beyond it.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum size in bytes of the books waiting to be written, whatever their number. Submissions are rejected
+     * beyond it, and the queue file stays under about twice this size.
+     */
+    private long maxSize = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of books written per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Delay between the end of a drain and the start of the next one.
+     */
+    private Duration drainInterval = Duration.ofMillis(100);
+
+    /**
+     * Whether every submission is forced to disk before being accepted. Without it, books accepted in the
+     * last moments before a machine crash can be lost.
+     */
+    private boolean fsync = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getDrainInterval() {
+        return drainInterval;
+    }
+
+    public void setDrainInterval(Duration drainInterval) {
+        this.drainInterval = drainInterval;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+}
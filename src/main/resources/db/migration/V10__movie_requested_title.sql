@@ -0,0 +1,3 @@
+-- The title a movie was last fetched with (MovieStore). A movie OMDB does not know is fetched again with it:
+-- its key has lost the case and the articles of the requested title.
+ALTER TABLE movie ADD COLUMN requested_title VARCHAR(255);
@@ -0,0 +1,11 @@
+-- Books of the write-behind log the database rejected (BookWriteBehind), set aside so the books after them are written.
+-- The title is kept as its UTF-8 bytes, the database may have rejected its characters.
+CREATE TABLE book_dead_letter (
+    idempotency_key UUID PRIMARY KEY,
+    title           BYTEA      NOT NULL,
+    pages           INTEGER    NOT NULL,
+    author_id       BIGINT     NOT NULL,
+    sql_state       VARCHAR(5) NOT NULL,
+    error           TEXT       NOT NULL,
+    date_created    TIMESTAMP  NOT NULL
+);
@@ -0,0 +1,14 @@
+-- Tables backing AuthorEntity and BookEntity.
+CREATE TABLE author (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    date_created TIMESTAMP    NOT NULL
+);
+
+CREATE TABLE book (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255) NOT NULL,
+    pages        INTEGER      NOT NULL,
+    date_created TIMESTAMP    NOT NULL,
+    author_id    BIGINT       NOT NULL REFERENCES author (id)
+);
@@ -0,0 +1,9 @@
+-- AuthorRepository.findByName: exact lookup by name.
+CREATE INDEX author_name_idx ON author (name);
+
+-- Case-insensitive lookups and prefix searches: lower(name) = ? and lower(name) LIKE 'prefix%'.
+CREATE INDEX author_name_lower_idx ON author (lower(name) text_pattern_ops);
+
+-- AuthorRepository.findBooks: the books of an author in (title, id) order, without a sort step.
+-- The leading author_id column also serves the foreign key and deletes of an author's books.
+CREATE INDEX book_author_id_title_idx ON book (author_id, title, id);
@@ -0,0 +1,5 @@
+-- Author search (AuthorRepository.searchByName): prefix LIKE and fuzzy word similarity on lower(name).
+-- pg_trgm is a trusted extension since PostgreSQL 13, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX author_name_trgm_idx ON author USING gin (lower(name) gin_trgm_ops);
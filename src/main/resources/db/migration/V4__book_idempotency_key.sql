@@ -0,0 +1,5 @@
+-- Write-behind book additions (BookWriteBehind): a book replayed from the queue is only inserted once.
+-- NULL for the books added synchronously, which a unique index allows any number of times.
+ALTER TABLE book ADD COLUMN idempotency_key UUID;
+
+CREATE UNIQUE INDEX book_idempotency_key_idx ON book (idempotency_key);
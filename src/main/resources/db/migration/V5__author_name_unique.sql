@@ -0,0 +1,12 @@
+-- One author per name: AuthorServiceImpl.saveAuthor upserts on it and findByName expects at most one row.
+-- Keep the oldest author of each name and move the books of the duplicates to it.
+UPDATE book b
+SET author_id = d.keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY name) AS keep_id FROM author) d
+WHERE b.author_id = d.id AND d.id <> d.keep_id;
+
+DELETE FROM author a USING author k WHERE a.name = k.name AND a.id > k.id;
+
+-- The unique constraint's index replaces the plain one on name.
+DROP INDEX author_name_idx;
+ALTER TABLE author ADD CONSTRAINT author_name_key UNIQUE (name);
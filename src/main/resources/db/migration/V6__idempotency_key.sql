@@ -0,0 +1,10 @@
+-- Responses of the requests sent with an Idempotency-Key header, for the jdbc IdempotencyStore.
+CREATE TABLE idempotency_key (
+    key          VARCHAR(255) PRIMARY KEY,
+    fingerprint  TEXT         NOT NULL,
+    status       INTEGER      NOT NULL,
+    body         BYTEA        NOT NULL,
+    date_created TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idempotency_key_date_created_idx ON idempotency_key (date_created);
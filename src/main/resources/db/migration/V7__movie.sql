@@ -0,0 +1,9 @@
+-- Movies fetched from OMDB (MovieStore), keyed by normalized title so they survive restarts. A NULL title
+-- records that OMDB has no such movie. hits counts the requests, to preload the hottest titles at startup.
+CREATE TABLE movie (
+    title_key  VARCHAR(255) PRIMARY KEY,
+    title      VARCHAR(255),
+    year       VARCHAR(32),
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    hits       BIGINT                   NOT NULL DEFAULT 0
+);
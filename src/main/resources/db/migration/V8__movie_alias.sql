@@ -0,0 +1,11 @@
+-- Query variants of a title mapped to the canonical key of the movie OMDB returned for them (MovieStore),
+-- for instance 'star wars' to 'star wars: episode iv - a new hope'.
+CREATE TABLE movie_alias (
+    alias_key VARCHAR(255) PRIMARY KEY,
+    title_key VARCHAR(255) NOT NULL REFERENCES movie (title_key) ON DELETE CASCADE
+);
+
+CREATE INDEX movie_alias_title_key_idx ON movie_alias (title_key);
+
+-- The keys no longer keep the English articles: the movies stored with one are fetched again under the new key
+DELETE FROM movie WHERE title_key ~ '^(the|an|a) .' OR title_key ~ '., (the|an|a)$';
@@ -0,0 +1,56 @@
+-- Book count and total pages per author, read by GET /authors/{id}/stats without touching the books.
+-- Kept up to date by the triggers below, in the transaction that writes the books: addBookToAuthor, the
+-- write-behind batches, the reactive inserts and the COPY of CatalogueGenerator all go through them.
+CREATE TABLE author_stats (
+    author_id   BIGINT PRIMARY KEY REFERENCES author (id) ON DELETE CASCADE,
+    book_count  BIGINT NOT NULL,
+    total_pages BIGINT NOT NULL
+);
+
+INSERT INTO author_stats (author_id, book_count, total_pages)
+SELECT author_id, count(*), sum(pages) FROM book GROUP BY author_id;
+
+-- Statement-level, so a batch or a COPY of many books updates each author once. The upserts go in author id
+-- order, so concurrent batches adding books to the same authors wait for each other instead of deadlocking.
+CREATE FUNCTION author_stats_apply() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO author_stats AS s (author_id, book_count, total_pages)
+        SELECT author_id, count(*), sum(pages) FROM new_books GROUP BY author_id ORDER BY author_id
+        ON CONFLICT (author_id) DO UPDATE
+            SET book_count = s.book_count + excluded.book_count,
+                total_pages = s.total_pages + excluded.total_pages;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO author_stats AS s (author_id, book_count, total_pages)
+        SELECT author_id, sum(books), sum(pages)
+        FROM (SELECT author_id, 1 AS books, pages FROM new_books
+              UNION ALL
+              SELECT author_id, -1, -pages FROM old_books) d
+        GROUP BY author_id ORDER BY author_id
+        ON CONFLICT (author_id) DO UPDATE
+            SET book_count = s.book_count + excluded.book_count,
+                total_pages = s.total_pages + excluded.total_pages;
+    ELSE
+        -- Only an update: the author of a deleted book may be deleted in the same transaction
+        UPDATE author_stats s
+        SET book_count = s.book_count - d.books,
+            total_pages = s.total_pages - d.pages
+        FROM (SELECT author_id, count(*) AS books, sum(pages) AS pages
+              FROM old_books GROUP BY author_id) d
+        WHERE s.author_id = d.author_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER author_stats_insert AFTER INSERT ON book
+    REFERENCING NEW TABLE AS new_books
+    FOR EACH STATEMENT EXECUTE FUNCTION author_stats_apply();
+
+CREATE TRIGGER author_stats_update AFTER UPDATE ON book
+    REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+    FOR EACH STATEMENT EXECUTE FUNCTION author_stats_apply();
+
+CREATE TRIGGER author_stats_delete AFTER DELETE ON book
+    REFERENCING OLD TABLE AS old_books
+    FOR EACH STATEMENT EXECUTE FUNCTION author_stats_apply();
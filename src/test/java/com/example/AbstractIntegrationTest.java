@@ -47,7 +47,7 @@ public abstract class AbstractIntegrationTest implements TestPropertyProvider {
     Map<String, String> props = new HashMap<>();
     props.put("datasources.default.db-type", "postgres");
     props.put("datasources.default.dialect", "POSTGRES");
-    props.put("datasources.default.schema-generate", "CREATE_DROP");
+    props.put("datasources.default.schema-generate", "NONE");
     props.put("datasources.default.driver-class-name", "org.postgresql.Driver");
     props.put("mockSecurityService", String.valueOf(mockSecurityServiceEnabled()));
     String specName = getSpecName();
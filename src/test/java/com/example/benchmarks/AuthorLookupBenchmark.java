@@ -0,0 +1,122 @@
+package com.example.benchmarks;
+
+import com.example.entities.AuthorEntity;
+import com.example.entities.BookEntity;
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
+import com.example.model.Book;
+import com.example.repositories.AuthorReads;
+import com.example.repositories.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Allocation benchmark of the mapping of an author and their books to the {@link Author} DTO.
+ * <p>
+ * {@code findAuthorByName} is the path of the author lookups: {@link AuthorReads#findAuthorByName(String, int, int)}
+ * over repositories answering from memory, whose {@code findBooks} maps one {@link Book} per row into a list as the
+ * result reader of Micronaut Data does, without the JDBC driver. {@code dtoOfEntities} maps the books of an entity
+ * read with a fetch join, as {@code AuthorRepository.dtoOfEntity} does, and {@code streamCollect} is its previous
+ * implementation (stream over the books set collected into a growing {@code ArrayList}). Run it with the GC
+ * profiler and compare {@code gc.alloc.rate.norm} (bytes per operation):
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="AuthorLookupBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorLookupBenchmark {
+
+    @Param({"2", "50", "1000"})
+    int books;
+
+    private AuthorReads reads;
+    private Set<BookEntity> bookEntities;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        AuthorEntity author = new AuthorEntity(1L, "Stephen King", now, Set.of());
+        String[] titles = new String[books];
+        int[] pages = new int[books];
+        // Micronaut Data fills the books of a fetch join into a hash-based set
+        bookEntities = new HashSet<>();
+        for (int i = 0; i < books; i++) {
+            titles[i] = "Book " + i;
+            pages[i] = 100 + i;
+            bookEntities.add(new BookEntity((long) i, titles[i], pages[i], now, author));
+        }
+        reads = new InMemoryReads(author, titles, pages);
+    }
+
+    @Benchmark
+    public Optional<Author> findAuthorByName() {
+        return reads.findAuthorByName("Stephen King", 0, AuthorReads.ALL_BOOKS);
+    }
+
+    @Benchmark
+    public List<Book> dtoOfEntities() {
+        return BookRepository.dtoOfEntities(bookEntities);
+    }
+
+    @Benchmark
+    public List<Book> streamCollect() {
+        return bookEntities.stream()
+                .map(BookRepository::dtoOfEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The reads of a single author, the rows of their books already in memory.
+     */
+    private record InMemoryReads(AuthorEntity author, String[] titles, int[] pages) implements AuthorReads {
+
+        @Override
+        public Optional<AuthorEntity> findByName(String name) {
+            return Optional.of(author);
+        }
+
+        @Override
+        public List<Book> findBooks(long authorId, int offset, int limit) {
+            int end = (int) Math.min(titles.length, (long) offset + limit);
+            List<Book> result = new ArrayList<>();
+            for (int row = offset; row < end; row++) {
+                result.add(new Book(titles[row], pages[row]));
+            }
+            return result;
+        }
+
+        @Override
+        public Optional<AuthorStats> findStats(long authorId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AuthorMatch> searchByName(String query, String prefix, int offset, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.benchmarks;
+
+import com.example.exceptions.UserUnauthorizedException;
+import com.example.exceptions.UserUnauthorizedExceptionHandler;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.hateoas.JsonError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the 401 error path of {@code /authors/by-name}: throwing the exception from {@code depth} frames
+ * below the handler, as deep in the server stack as a request thread is, catching it and building the response.
+ * <p>
+ * {@code fullStackTrace} is the previous path (a new exception filling in its stack trace, and a response built
+ * by the handler), {@code stackless} a new {@link UserUnauthorizedException} without stack trace, and
+ * {@code preallocated} the shared instance the controller throws now. The last two go through the current
+ * handler, whose response body is serialized once. Run it with the GC profiler:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ErrorPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "150"})
+    int depth;
+
+    private final UserUnauthorizedExceptionHandler handler = new UserUnauthorizedExceptionHandler();
+
+    @Benchmark
+    public HttpResponse<?> fullStackTrace() {
+        try {
+            throwFrom(depth, FullStackTraceException::new);
+        } catch (FullStackTraceException e) {
+            return HttpResponse.<JsonError>unauthorized();
+        }
+        throw new AssertionError();
+    }
+
+    @Benchmark
+    public HttpResponse<?> stackless() {
+        try {
+            throwFrom(depth, UserUnauthorizedException::new);
+        } catch (UserUnauthorizedException e) {
+            return handler.handle(null, e);
+        }
+        throw new AssertionError();
+    }
+
+    @Benchmark
+    public HttpResponse<?> preallocated() {
+        try {
+            throwFrom(depth, UserUnauthorizedException::instance);
+        } catch (UserUnauthorizedException e) {
+            return handler.handle(null, e);
+        }
+        throw new AssertionError();
+    }
+
+    private static void throwFrom(int depth, Supplier<? extends RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwFrom(depth - 1, exception);
+    }
+
+    /**
+     * The previous {@code UserUnauthorizedException}.
+     */
+    private static final class FullStackTraceException extends RuntimeException {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.benchmarks;
+
+import com.example.omdb.Movie;
+import com.example.omdb.MovieBodyReader;
+import io.micronaut.serde.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding benchmark of the recorded OMDB responses in {@code src/test/resources/omdb}.
+ * <p>
+ * {@code serde} is the previous path (the generic JSON handler binding the whole document),
+ * {@code streaming} the {@link MovieBodyReader} over the same bytes, and {@code streamingPooledBuffer} the
+ * {@link MovieBodyReader} reading a pooled direct Netty buffer, as the HTTP client hands it over. Run it with
+ * the GC profiler to compare the time and {@code gc.alloc.rate.norm} (bytes per operation):
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="OmdbDecodeBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OmdbDecodeBenchmark {
+
+    @Param({"star-wars", "carrie-full-plot", "not-found"})
+    String payload;
+
+    private ObjectMapper.CloseableObjectMapper objectMapper;
+    private byte[] bytes;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = ObjectMapper.create(Map.of());
+        try (InputStream inputStream = OmdbDecodeBenchmark.class.getResourceAsStream("/omdb/" + payload + ".json")) {
+            bytes = inputStream.readAllBytes();
+        }
+        buffer = PooledByteBufAllocator.DEFAULT.directBuffer(bytes.length).writeBytes(bytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+        objectMapper.close();
+    }
+
+    @Benchmark
+    public Movie serde() throws IOException {
+        return objectMapper.readValue(bytes, Movie.class);
+    }
+
+    @Benchmark
+    public Movie streaming() throws IOException {
+        return MovieBodyReader.decode(bytes);
+    }
+
+    @Benchmark
+    public Movie streamingPooledBuffer() throws IOException {
+        try (InputStream inputStream = new ByteBufInputStream(buffer.duplicate())) {
+            return MovieBodyReader.decode(inputStream);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.security.SecurityService;
+import com.example.security.SecurityServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the debug log of {@link SecurityServiceImpl#canUserAccess(String)} for the request threads, 8 of them
+ * checking access concurrently.
+ * <p>
+ * {@code off} is the production level (the debug call is a level check), {@code sync} logs the debug message
+ * through a file appender on the request thread, as the previous {@code logback.xml} did, and {@code async}
+ * through the bounded, never-blocking {@link AsyncAppender} of the current one. The events are encoded by the
+ * {@link JsonEncoder} in all cases:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="SecurityLoggingBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SecurityLoggingBenchmark {
+
+    @Param({"off", "sync", "async"})
+    String logging;
+
+    private final SecurityService securityService = new SecurityServiceImpl();
+    private LoggerContext context;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("security-logging", ".json");
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.setWithSequenceNumber(false);
+        encoder.setWithNanoseconds(false);
+        encoder.setWithContext(false);
+        encoder.setWithMessage(false);
+        encoder.setWithArguments(false);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (logging.equals("async")) {
+            // Same settings as src/main/resources/logback.xml
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1024);
+            async.setNeverBlock(true);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.getLogger(SecurityServiceImpl.class).setLevel(logging.equals("off") ? Level.INFO : Level.DEBUG);
+    }
+
+    /**
+     * Empty the log file between iterations, so the benchmark does not fill the disk.
+     */
+    @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+    public void truncate() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public boolean canUserAccess() {
+        return securityService.canUserAccess("admin");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.benchmarks;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of tracing a {@code /authors/by-name} request: the six spans the application adds under the server
+ * span (controller, security check, service, two repository calls and a connection wait), nested the same way.
+ * <p>
+ * {@code noop} is the OpenTelemetry API without SDK, {@code unsampled} the SDK for a trace the sampler dropped
+ * (9 requests out of 10 with the default {@code otel.traces.sampler.arg}), and {@code sampled} a recorded trace,
+ * handed to the batch processor of the exporter:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="TracingBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingBenchmark {
+
+    @Param({"noop", "unsampled", "sampled"})
+    String tracing;
+
+    private OpenTelemetry openTelemetry;
+    private Tracer tracer;
+
+    @Setup
+    public void setUp() {
+        if (tracing.equals("noop")) {
+            openTelemetry = OpenTelemetry.noop();
+        } else {
+            // Exports nowhere: the cost measured is the request thread's, the export runs on the processor thread
+            openTelemetry = OpenTelemetrySdk.builder()
+                    .setTracerProvider(SdkTracerProvider.builder()
+                            .setSampler(tracing.equals("sampled") ? Sampler.alwaysOn() : Sampler.alwaysOff())
+                            .addSpanProcessor(BatchSpanProcessor.builder(SpanExporter.composite()).build())
+                            .build())
+                    .build();
+        }
+        tracer = openTelemetry.getTracer("com.example");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (openTelemetry instanceof OpenTelemetrySdk sdk) {
+            sdk.close();
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        Span controller = tracer.spanBuilder("AuthorController.findAuthorByName").startSpan();
+        try (io.opentelemetry.context.Scope ignored = controller.makeCurrent()) {
+            tracer.spanBuilder("SecurityServiceImpl.canUserAccess").startSpan().end();
+            Span service = tracer.spanBuilder("AuthorServiceImpl.findAuthorByName").startSpan();
+            try (io.opentelemetry.context.Scope ignored2 = service.makeCurrent()) {
+                repositoryCall("AuthorReads.findByName", true);
+                repositoryCall("AuthorReads.findBooks", false);
+            } finally {
+                service.end();
+            }
+        } finally {
+            controller.end();
+        }
+    }
+
+    private void repositoryCall(String name, boolean waitsForConnection) {
+        Span span = tracer.spanBuilder(name).startSpan();
+        try (io.opentelemetry.context.Scope ignored = span.makeCurrent()) {
+            if (waitsForConnection) {
+                tracer.spanBuilder("hikari.acquire").startSpan().end();
+            }
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.concurrencylimit;
+
+import com.example.AbstractServerTest;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.io.socket.SocketUtils;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pins the OMDB limit to a single call, holds that call in a slow mock OMDB API and verifies the next one is
+ * refused with a 503 instead of waiting.
+ */
+class ConcurrencyLimitTest extends AbstractServerTest {
+
+    private static final CountDownLatch OMDB_RELEASED = new CountDownLatch(1);
+
+    private final int omdbPort = SocketUtils.findAvailableTcpPort();
+    private EmbeddedServer omdbServer;
+
+    @Inject
+    ConcurrencyLimitInterceptor interceptor;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("omdb.base-url", "http://localhost:" + omdbPort);
+        props.put("concurrency-limit.enabled", "true");
+        props.put("concurrency-limit.initial-limit", "1");
+        props.put("concurrency-limit.min-limit", "1");
+        props.put("concurrency-limit.max-limit", "1");
+        return props;
+    }
+
+    @BeforeAll
+    void startOmdbMock() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("micronaut.server.port", omdbPort);
+        config.put("spec.name", "ConcurrencyLimitTest");
+        config.put("datasources.default.db-type", "postgres");
+        config.put("datasources.default.dialect", "POSTGRES");
+        config.put("datasources.default.driver-class-name", "org.postgresql.Driver");
+        config.put("datasources.default.schema-generate", "NONE");
+        config.put("mockSecurityService", "true");
+        omdbServer = ApplicationContext.run(EmbeddedServer.class, config);
+    }
+
+    @AfterAll
+    void stopOmdbMock() {
+        OMDB_RELEASED.countDown();
+        if (omdbServer != null) {
+            omdbServer.close();
+        }
+    }
+
+    @Test
+    void callsOverTheLimitAreRefusedWith503() throws Exception {
+        CompletableFuture<HttpResponse<String>> first = CompletableFuture.supplyAsync(() ->
+                getClient().exchange(HttpRequest.GET("/movies/by-title?title=Carrie"), String.class));
+        awaitInFlight(1);
+
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                getClient().exchange(HttpRequest.GET("/movies/by-title?title=Carrie"),
+                        Argument.of(String.class), Argument.of(String.class)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertThat(e.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        OMDB_RELEASED.countDown();
+        assertEquals(HttpStatus.OK, first.get(10, TimeUnit.SECONDS).status());
+        assertThat(interceptor.limiter("omdb").inFlight()).isZero();
+    }
+
+    @Test
+    void synchronousBookAdditionsAreLimited() {
+        // The author does not exist, nothing is added
+        assertThat(bookRepository.addOnce("Carrie", 199, Long.MAX_VALUE, null)).isZero();
+
+        assertThat(interceptor.limiter("jdbc")).isNotNull();
+        assertThat(interceptor.limiter("jdbc").inFlight()).isZero();
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (interceptor.limiter("omdb") == null || interceptor.limiter("omdb").inFlight() != expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Controller("/")
+    @Requires(property = "spec.name", value = "ConcurrencyLimitTest")
+    static class SlowOmdbMock {
+
+        @Get
+        @ExecuteOn(TaskExecutors.BLOCKING)
+        String findMovie(@QueryValue("t") String title) throws InterruptedException {
+            OMDB_RELEASED.await(10, TimeUnit.SECONDS);
+            return """
+                    {"Title":"Carrie","Year":"1976","Response":"True"}""";
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.concurrencylimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void callsOverTheLimitAreRefused() {
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+
+        limiter.release(BASE_RTT);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void theLimitGrowsWhileTheLatencyIsFlat() {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 50, 1.5, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            int admitted = acquireAll(limiter, 100);
+            releaseAll(limiter, admitted, BASE_RTT);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(50);
+    }
+
+    @Test
+    void theLimitDoesNotGrowWhenMostOfItIsUnused() {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 50, 1.5, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            int admitted = acquireAll(limiter, 2);
+            releaseAll(limiter, admitted, BASE_RTT);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    /**
+     * A dependency serving 10 calls at a time, and 100 callers: unguarded, every call would take 10 times its
+     * healthy latency.
+     */
+    @Test
+    void underOverloadTheLatencyStaysCloseToTheHealthyOne() {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 200, 1.5, 0.2);
+        Dependency dependency = new Dependency(10, BASE_RTT);
+
+        dependency.serve(limiter, 500);
+        Stats stats = dependency.serve(limiter, 1500);
+
+        assertThat(stats.averageRtt()).isLessThan(1.6 * BASE_RTT);
+        assertThat(stats.maxLimit()).isLessThan(30);
+    }
+
+    @Test
+    void aDependencyThatGotSlowerForGoodIsRelearnt() {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 200, 1.5, 0.2);
+        Dependency dependency = new Dependency(10, BASE_RTT);
+        dependency.serve(limiter, 1000);
+
+        dependency.rtt = 3 * BASE_RTT;
+        dependency.serve(limiter, 500);
+        Stats stats = dependency.serve(limiter, 1500);
+
+        assertThat(stats.averageRtt()).isLessThan(1.6 * 3 * BASE_RTT);
+        assertThat(stats.minLimit()).isGreaterThan(2);
+    }
+
+    private static int acquireAll(GradientLimiter limiter, int demand) {
+        int admitted = 0;
+        while (admitted < demand && limiter.tryAcquire()) {
+            admitted++;
+        }
+        return admitted;
+    }
+
+    private static void releaseAll(GradientLimiter limiter, int admitted, long rtt) {
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rtt);
+        }
+    }
+
+    /**
+     * Dependency whose latency grows in proportion to the calls queued over its capacity, called in rounds by
+     * 100 callers.
+     */
+    private static final class Dependency {
+
+        private final Random random = new Random(42);
+        private final int capacity;
+        private long rtt;
+
+        Dependency(int capacity, long rtt) {
+            this.capacity = capacity;
+            this.rtt = rtt;
+        }
+
+        Stats serve(GradientLimiter limiter, int rounds) {
+            Stats stats = new Stats();
+            for (int round = 0; round < rounds; round++) {
+                int admitted = acquireAll(limiter, 100);
+                for (int i = 0; i < admitted; i++) {
+                    double queueing = Math.max(1.0, (double) admitted / capacity);
+                    long latency = (long) (rtt * queueing * (0.8 + 0.4 * random.nextDouble()));
+                    limiter.release(latency);
+                    stats.totalRtt += latency;
+                    stats.calls++;
+                }
+                stats.minLimit = Math.min(stats.minLimit, limiter.limit());
+                stats.maxLimit = Math.max(stats.maxLimit, limiter.limit());
+            }
+            return stats;
+        }
+    }
+
+    private static final class Stats {
+
+        private long totalRtt;
+        private long calls;
+        private int minLimit = Integer.MAX_VALUE;
+        private int maxLimit;
+
+        double averageRtt() {
+            return (double) totalRtt / calls;
+        }
+
+        int minLimit() {
+            return minLimit;
+        }
+
+        int maxLimit() {
+            return maxLimit;
+        }
+    }
+}
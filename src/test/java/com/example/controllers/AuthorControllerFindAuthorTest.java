@@ -1,12 +1,16 @@
 package com.example.controllers;
 
 import com.example.AbstractServerTest;
+import com.example.entities.AuthorEntity;
 import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
 import com.example.model.Author;
+import com.example.model.Book;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.hateoas.JsonError;
 import io.micronaut.http.uri.UriBuilder;
 import org.junit.jupiter.api.Test;
 
@@ -23,7 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  * Run the test and search in the log for "Using mock security service".
  * </p>
  */
-class AuthorControllerFindAuthorTest extends AbstractServerTest implements AuthorFixture {
+class AuthorControllerFindAuthorTest extends AbstractServerTest implements AuthorFixture, BookFixture {
 
     @Test
     void findAuthorByName() {
@@ -44,6 +48,33 @@ class AuthorControllerFindAuthorTest extends AbstractServerTest implements Autho
         authorRepository.deleteAll();
     }
 
+    @Test
+    void findAuthorByNameWithAPageOfBooks() {
+        String authorName = "My favourite author";
+        AuthorEntity authorEntity = saveAuthor(authorName);
+        saveBook("c", authorEntity);
+        saveBook("a", authorEntity);
+        saveBook("b", authorEntity);
+
+        URI uri = UriBuilder.of("/authors/by-name")
+                .queryParam("author", authorName)
+                .queryParam("offset", 1)
+                .queryParam("limit", 1)
+                .build();
+
+        HttpResponse<Author> response = getClient().exchange(HttpRequest.GET(uri), Author.class);
+        assertEquals(HttpStatus.OK, response.status());
+
+        Author author = response.body();
+        assertThat(author).isNotNull();
+        assertThat(author.getBooks())
+                .extracting(Book::getTitle)
+                .containsExactly("b");
+
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
     @Test
     void findNonExistentAuthorReturns404() {
         URI uri = UriBuilder.of("/authors/by-name")
@@ -54,5 +85,6 @@ class AuthorControllerFindAuthorTest extends AbstractServerTest implements Autho
                 () -> getClient().exchange(HttpRequest.GET(uri), Author.class));
 
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        assertThat(ex.getResponse().getBody(JsonError.class)).map(JsonError::getMessage).contains("Author not found");
     }
 }
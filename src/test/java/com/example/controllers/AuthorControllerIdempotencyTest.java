@@ -0,0 +1,113 @@
+package com.example.controllers;
+
+import com.example.AbstractServerTest;
+import com.example.fixtures.AuthorFixture;
+import com.example.idempotency.IdempotencyStore;
+import com.example.model.Author;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthorControllerIdempotencyTest extends AbstractServerTest implements AuthorFixture {
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @AfterEach
+    void cleanUp() {
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheOriginalResponse() {
+        String key = UUID.randomUUID().toString();
+
+        HttpResponse<Author> first = getClient().exchange(createAuthor("Stephen King", key), Author.class);
+        assertEquals(HttpStatus.CREATED, first.status());
+
+        // The replay does not read the database: the author is still returned once it's gone.
+        authorRepository.deleteAll();
+        HttpResponse<Author> retry = getClient().exchange(createAuthor("Stephen King", key), Author.class);
+
+        assertEquals(HttpStatus.CREATED, retry.status());
+        assertThat(retry.header(AuthorController.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.body()).isNotNull();
+        assertThat(retry.body().getId()).isEqualTo(first.body().getId());
+        assertThat(authorRepository.count()).isZero();
+    }
+
+    @Test
+    void reusingAKeyForAnotherAuthorReturns422() {
+        String key = UUID.randomUUID().toString();
+        getClient().exchange(createAuthor("Stephen King", key), Author.class);
+
+        HttpClientResponseException ex = assertThrows(HttpClientResponseException.class,
+                () -> getClient().exchange(createAuthor("Neil Gaiman", key), Argument.of(Author.class), Argument.of(Map.class)));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatus());
+    }
+
+    @Test
+    void aRetryWhileTheRequestIsInProgressReturns409() {
+        String key = UUID.randomUUID().toString();
+        // As the first request does before saving the author
+        idempotencyStore.reserve(key, "Stephen King");
+
+        HttpClientResponseException ex = assertThrows(HttpClientResponseException.class,
+                () -> getClient().exchange(createAuthor("Stephen King", key), Argument.of(Author.class), Argument.of(Map.class)));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertThat(ex.getResponse().header(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(authorRepository.count()).isZero();
+
+        // The first request failed and released the key: the retry runs it
+        idempotencyStore.release(key);
+        HttpResponse<Author> retry = getClient().exchange(createAuthor("Stephen King", key), Author.class);
+        assertEquals(HttpStatus.CREATED, retry.status());
+    }
+
+    @Test
+    void creatingTheSameAuthorTwiceWithoutKeyReturnsTheExistingOne() {
+        HttpRequest<CreateAuthorRequest> request = HttpRequest.POST("/authors", createAuthorRequest());
+        HttpResponse<Author> first = getClient().exchange(request, Author.class);
+        HttpResponse<Author> second = getClient().exchange(request, Author.class);
+
+        assertEquals(HttpStatus.CREATED, first.status());
+        assertEquals(HttpStatus.OK, second.status());
+        assertThat(second.body().getId()).isEqualTo(first.body().getId());
+        assertThat(authorRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void aNewKeyForAnExistingAuthorReplaysTheExistingOneWith200() {
+        String key = UUID.randomUUID().toString();
+        Author existing = getClient().retrieve(HttpRequest.POST("/authors", createAuthorRequest("Stephen King")),
+                Author.class);
+
+        HttpResponse<Author> first = getClient().exchange(createAuthor("Stephen King", key), Author.class);
+        HttpResponse<Author> retry = getClient().exchange(createAuthor("Stephen King", key), Author.class);
+
+        assertEquals(HttpStatus.OK, first.status());
+        assertEquals(HttpStatus.OK, retry.status());
+        assertThat(retry.header(AuthorController.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.body().getId()).isEqualTo(existing.getId());
+    }
+
+    private HttpRequest<CreateAuthorRequest> createAuthor(String name, String key) {
+        return HttpRequest.POST("/authors", createAuthorRequest(name))
+                .header(IdempotencyStore.HEADER, key);
+    }
+}
@@ -3,8 +3,11 @@ package com.example.controllers;
 import com.example.AbstractServerTest;
 import com.example.fixtures.AuthorFixture;
 import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.AuthorStats;
 import com.example.services.AuthorService;
 import com.example.services.SaveBook;
+import com.example.services.SavedAuthor;
 import io.micronaut.context.annotation.Primary;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.http.HttpRequest;
@@ -16,7 +19,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -55,7 +60,7 @@ class AuthorControllerMockServiceTest extends AbstractServerTest implements Auth
     static class AuthorServiceMock implements AuthorService {
 
         @Override
-        public Author saveAuthor(@NotBlank String name) {
+        public SavedAuthor saveAuthor(@NotBlank String name) {
             throw new RuntimeException("There was an error saving the author.");
         }
 
@@ -64,10 +69,39 @@ class AuthorControllerMockServiceTest extends AbstractServerTest implements Auth
             // not used in this test
         }
 
+        @Override
+        public void addBookToAuthor(@NotNull @Valid SaveBook saveBook, @NotNull UUID idempotencyKey) {
+            // not used in this test
+        }
+
         @Override
         public Optional<Author> findAuthorByName(@NotBlank String name) {
             // not used in this test
             return Optional.empty();
         }
+
+        @Override
+        public Optional<Author> findAuthorByName(@NotBlank String name, int offset, int limit) {
+            // not used in this test
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<AuthorMatch> findAuthorWithoutBooks(@NotBlank String name) {
+            // not used in this test
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<AuthorStats> findAuthorStats(long authorId) {
+            // not used in this test
+            return Optional.empty();
+        }
+
+        @Override
+        public List<AuthorMatch> searchAuthors(@NotBlank String query, int offset, int limit) {
+            // not used in this test
+            return List.of();
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.example.controllers;
+
+import com.example.AbstractServerTest;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.model.AuthorMatch;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthorControllerSearchTest extends AbstractServerTest implements AuthorFixture, BookFixture {
+
+    @BeforeEach
+    void saveAuthors() {
+        saveAuthor("Stephen King");
+        saveBook("Twilight", saveAuthor("Stephenie Meyer"));
+        saveAuthor("Stephen Kingsley");
+        saveAuthor("Neil Gaiman");
+    }
+
+    @AfterEach
+    void deleteAuthors() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void searchByPrefixIgnoringCase() {
+        assertThat(search("STEPHEN K", 0, 10))
+                .extracting(AuthorMatch::getName)
+                .startsWith("Stephen King", "Stephen Kingsley")
+                .doesNotContain("Neil Gaiman");
+    }
+
+    @Test
+    void searchRanksTheMostProlificPrefixMatchesFirst() {
+        assertThat(search("stephen", 0, 10))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephenie Meyer", "Stephen King", "Stephen Kingsley");
+    }
+
+    @Test
+    void searchFindsMisspelledNames() {
+        // word_similarity 0.625, above the 0.6 default threshold of pg_trgm
+        assertThat(search("stephan king", 0, 10))
+                .extracting(AuthorMatch::getName)
+                .contains("Stephen King")
+                .doesNotContain("Neil Gaiman");
+    }
+
+    @Test
+    void searchReturnsAPage() {
+        assertThat(search("stephen k", 1, 1))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephen Kingsley");
+    }
+
+    @Test
+    void searchTreatsLikeWildcardsLiterally() {
+        assertThat(search("%", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchWithoutQueryReturns400() {
+        URI uri = UriBuilder.of("/authors/search").build();
+
+        HttpClientResponseException ex = assertThrows(HttpClientResponseException.class,
+                () -> getClient().exchange(HttpRequest.GET(uri), Argument.listOf(AuthorMatch.class)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+
+    private List<AuthorMatch> search(String query, int offset, int limit) {
+        URI uri = UriBuilder.of("/authors/search")
+                .queryParam("q", query)
+                .queryParam("offset", offset)
+                .queryParam("limit", limit)
+                .build();
+
+        return getClient().retrieve(HttpRequest.GET(uri), Argument.listOf(AuthorMatch.class));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.controllers;
+
+import com.example.AbstractServerTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.jfr.RepositoryQueryEvent;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriBuilder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@code ?fields=} and {@code ?expand=books} on {@code /authors/by-name}, checking both the JSON returned and the
+ * queries run, recorded with JFR.
+ */
+class AuthorControllerSparseFieldsTest extends AbstractServerTest implements AuthorFixture, BookFixture {
+
+    @TempDir
+    Path directory;
+
+    private List<String> queries;
+
+    @BeforeEach
+    void saveCatalogue() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        saveBook("Carrie", author, 199);
+        saveBook("It", author, 1138);
+    }
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void idAndNameOnlySkipTheBooksQuery() throws IOException {
+        long id = authorRepository.findByName("Stephen King").orElseThrow().id();
+
+        String json = recordQueries(() -> get(UriBuilder.of("/authors/by-name")
+                .queryParam("author", "Stephen King")
+                .queryParam("fields", "id,name")));
+
+        assertThat(json).isEqualTo("{\"id\":" + id + ",\"name\":\"Stephen King\"}");
+        assertThat(queries).containsExactly("AuthorRepository.findByName");
+    }
+
+    @Test
+    void expandAddsTheBooksToTheRequestedFields() throws IOException {
+        String json = recordQueries(() -> get(UriBuilder.of("/authors/by-name")
+                .queryParam("author", "Stephen King")
+                .queryParam("fields", "name")
+                .queryParam("expand", "books")));
+
+        assertThat(json).isEqualTo("{\"name\":\"Stephen King\",\"books\":"
+                + "[{\"title\":\"Carrie\",\"pages\":199},{\"title\":\"It\",\"pages\":1138}]}");
+        assertThat(queries).containsExactly("AuthorRepository.findByName", "AuthorRepository.findBooks");
+    }
+
+    @Test
+    void withoutParametersTheWholeAuthorIsReturned() throws IOException {
+        String json = recordQueries(() -> get(UriBuilder.of("/authors/by-name")
+                .queryParam("author", "Stephen King")));
+
+        assertThat(json).contains("\"id\":", "\"name\":\"Stephen King\"", "\"books\":[");
+        assertThat(queries).containsExactly("AuthorRepository.findByName", "AuthorRepository.findBooks");
+    }
+
+    @Test
+    void unknownFieldsReturn400() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> get(UriBuilder.of("/authors/by-name")
+                        .queryParam("author", "Stephen King")
+                        .queryParam("fields", "id,password")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void unknownAuthorWithoutBooksReturns404() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> get(UriBuilder.of("/authors/by-name")
+                        .queryParam("author", "Nobody")
+                        .queryParam("fields", "id")));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    private String get(UriBuilder uri) {
+        return getClient().retrieve(HttpRequest.GET(uri.build()), String.class);
+    }
+
+    private String recordQueries(Supplier<String> request) throws IOException {
+        Path file = directory.resolve("queries.jfr");
+        String json;
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryQueryEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            json = request.get();
+            recording.stop();
+            recording.dump(file);
+        }
+        queries = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(RepositoryQueryEvent.NAME))
+                .map(event -> event.getString("method"))
+                .toList();
+        return json;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.controllers;
+
+import com.example.AbstractServerTest;
+import com.example.entities.AuthorEntity;
+import com.example.entities.BookEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.model.AuthorStats;
+import com.example.services.AuthorService;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthorControllerStatsTest extends AbstractServerTest implements AuthorFixture, BookFixture {
+
+    @Inject
+    AuthorService authorService;
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void statsCountTheBooksAddedToAnAuthor() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        authorService.addBookToAuthor(createSaveBook(author.id(), "Carrie", 199));
+        authorService.addBookToAuthor(createSaveBook(author.id(), "It", 1138));
+
+        AuthorStats stats = stats(author.id());
+
+        assertThat(stats.getAuthorId()).isEqualTo(author.id());
+        assertThat(stats.getBookCount()).isEqualTo(2);
+        assertThat(stats.getTotalPages()).isEqualTo(199 + 1138);
+    }
+
+    @Test
+    void statsFollowBatchesAndDeletes() {
+        AuthorEntity king = saveAuthor("Stephen King");
+        AuthorEntity gaiman = saveAuthor("Neil Gaiman");
+        bookRepository.saveAll(List.of(
+                new BookEntity("Carrie", 199, king),
+                new BookEntity("It", 1138, king),
+                new BookEntity("Coraline", 162, gaiman)));
+        BookEntity misery = saveBook("Misery", king, 310);
+
+        bookRepository.delete(misery);
+
+        assertThat(stats(king.id())).extracting(AuthorStats::getBookCount, AuthorStats::getTotalPages)
+                .containsExactly(2L, 199L + 1138L);
+        assertThat(stats(gaiman.id())).extracting(AuthorStats::getBookCount, AuthorStats::getTotalPages)
+                .containsExactly(1L, 162L);
+    }
+
+    @Test
+    void anAuthorWithoutBooksHasZeroStats() {
+        AuthorEntity author = saveAuthor("Stephen King");
+
+        assertThat(stats(author.id())).extracting(AuthorStats::getBookCount, AuthorStats::getTotalPages)
+                .containsExactly(0L, 0L);
+    }
+
+    @Test
+    void statsOfANonExistentAuthorReturn404() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> getClient().exchange(HttpRequest.GET("/authors/999999/stats"), AuthorStats.class));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    private AuthorStats stats(long authorId) {
+        return getClient().retrieve(HttpRequest.GET("/authors/" + authorId + "/stats"), AuthorStats.class);
+    }
+}
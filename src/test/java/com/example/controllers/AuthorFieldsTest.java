@@ -0,0 +1,51 @@
+package com.example.controllers;
+
+import com.example.model.Book;
+import io.micronaut.serde.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorFieldsTest {
+
+    private final ObjectMapper objectMapper = ObjectMapper.getDefault();
+
+    @Test
+    void allFieldsByDefault() {
+        assertThat(AuthorFields.of(null, null)).isEqualTo(AuthorFields.ALL);
+        assertThat(AuthorFields.of(null, "books")).isEqualTo(AuthorFields.ALL);
+    }
+
+    @Test
+    void booksAreOnlyReadWhenRequested() {
+        assertThat(AuthorFields.of("id,name", null)).isEqualTo(new AuthorFields(true, true, false));
+        assertThat(AuthorFields.of("name,books", null)).isEqualTo(new AuthorFields(false, true, true));
+        assertThat(AuthorFields.of("id", "books")).isEqualTo(new AuthorFields(true, false, true));
+    }
+
+    @Test
+    void fieldsMustBeKnown() {
+        assertThat("id,name").matches(AuthorFields.FIELDS_PATTERN);
+        assertThat("books").matches(AuthorFields.FIELDS_PATTERN);
+        assertThat("id,password").doesNotMatch(AuthorFields.FIELDS_PATTERN);
+        assertThat("id,").doesNotMatch(AuthorFields.FIELDS_PATTERN);
+        assertThat("all").doesNotMatch(AuthorFields.EXPAND_PATTERN);
+    }
+
+    @Test
+    void serializesTheSelectedFieldsOnly() throws IOException {
+        List<Book> books = List.of(new Book("Carrie", 199));
+
+        assertThat(json(new AuthorFields(true, true, false), null))
+                .isEqualTo("{\"id\":42,\"name\":\"Stephen King\"}");
+        assertThat(json(new AuthorFields(false, true, true), books))
+                .isEqualTo("{\"name\":\"Stephen King\",\"books\":[{\"title\":\"Carrie\",\"pages\":199}]}");
+    }
+
+    private String json(AuthorFields fields, List<Book> books) throws IOException {
+        return objectMapper.writeValueAsString(fields.select(42, "Stephen King", books));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.controllers;
+
+import com.example.AbstractServerTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.model.Author;
+import com.example.model.AuthorMatch;
+import com.example.model.Book;
+import com.example.reactive.ReactiveAuthorService;
+import com.example.services.SaveBook;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriBuilder;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The reactive endpoints, on the R2DBC pool opened to the test database.
+ */
+class ReactiveAuthorControllerTest extends AbstractServerTest implements AuthorFixture, BookFixture {
+
+    @Inject
+    ReactiveAuthorService reactiveAuthorService;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("reactive.enabled", "true");
+        return props;
+    }
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void createAuthor() {
+        HttpResponse<Author> response = getClient().exchange(
+                HttpRequest.POST("/reactive/authors", Map.of("name", "Stephen King")), Author.class);
+
+        assertEquals(HttpStatus.CREATED, response.status());
+        assertThat(response.body()).isNotNull();
+        assertThat(response.body().getName()).isEqualTo("Stephen King");
+        assertThat(authorRepository.findByName("Stephen King")).isPresent();
+    }
+
+    @Test
+    void createAnExistingAuthorReturnsIt() {
+        AuthorEntity existing = saveAuthor("Stephen King");
+
+        HttpResponse<Author> response = getClient().exchange(
+                HttpRequest.POST("/reactive/authors", Map.of("name", "Stephen King")), Author.class);
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertThat(response.body()).isNotNull();
+        assertThat(response.body().getId()).isEqualTo(existing.id());
+        assertThat(authorRepository.count()).isOne();
+    }
+
+    @Test
+    void findAuthorByNameWithAPageOfBooks() {
+        AuthorEntity authorEntity = saveAuthor("Stephen King");
+        saveBook("c", authorEntity);
+        saveBook("a", authorEntity);
+        saveBook("b", authorEntity);
+
+        Author author = getClient().retrieve(HttpRequest.GET(byName("Stephen King")
+                .queryParam("offset", 1)
+                .queryParam("limit", 1)
+                .build()), Author.class);
+
+        assertThat(author.getId()).isEqualTo(authorEntity.id());
+        assertThat(author.getBooks())
+                .extracting(Book::getTitle)
+                .containsExactly("b");
+    }
+
+    @Test
+    void findNonExistentAuthorReturns404() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> getClient().exchange(HttpRequest.GET(byName("Nobody").build()), Author.class));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    @Test
+    void searchAuthors() {
+        saveAuthor("Stephen King");
+        saveAuthor("Stephen Kingsley");
+        saveAuthor("Neil Gaiman");
+
+        List<AuthorMatch> matches = getClient().retrieve(
+                HttpRequest.GET(UriBuilder.of("/reactive/authors/search").queryParam("q", "STEPHEN K").build()),
+                Argument.listOf(AuthorMatch.class));
+
+        assertThat(matches)
+                .extracting(AuthorMatch::getName)
+                .startsWith("Stephen King", "Stephen Kingsley")
+                .doesNotContain("Neil Gaiman");
+    }
+
+    @Test
+    void addBookToAuthor() {
+        AuthorEntity author = saveAuthor("Stephen King");
+
+        assertThat(reactiveAuthorService.addBookToAuthor(new SaveBook("Carrie", 199, author.id())).block()).isTrue();
+        assertThat(reactiveAuthorService.addBookToAuthor(new SaveBook("Carrie", 199, author.id() + 1)).block())
+                .isFalse();
+
+        assertThat(bookRepository.count()).isOne();
+    }
+
+    private static UriBuilder byName(String name) {
+        return UriBuilder.of("/reactive/authors/by-name").queryParam("author", name);
+    }
+}
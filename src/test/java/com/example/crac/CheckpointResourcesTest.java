@@ -0,0 +1,71 @@
+package com.example.crac;
+
+import com.example.AbstractServerTest;
+import com.example.fixtures.AuthorFixture;
+import com.example.model.Author;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.io.socket.SocketUtils;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.uri.UriBuilder;
+import jakarta.inject.Inject;
+import org.crac.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the checkpoint hooks by hand (a regular JVM cannot take a real checkpoint) and checks that
+ * the server, the connection pool and the repositories work again after the simulated restore.
+ */
+class CheckpointResourcesTest extends AbstractServerTest implements AuthorFixture {
+
+    // The server is stopped and started again, so it needs a fixed port for the test client
+    private final int port = SocketUtils.findAvailableTcpPort();
+
+    @Inject
+    CheckpointResources checkpointResources;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("micronaut.server.port", String.valueOf(port));
+        props.put("crac.enabled", "true");
+        props.put("datasources.default.allow-pool-suspension", "true");
+        return props;
+    }
+
+    @Test
+    void applicationServesRequestsAfterRestore() throws Exception {
+        List<Resource> resources = checkpointResources.getResources();
+        assertThat(resources).hasSizeGreaterThanOrEqualTo(3);
+
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            resources.get(i).beforeCheckpoint(null);
+        }
+        for (Resource resource : resources) {
+            resource.afterRestore(null);
+        }
+
+        String authorName = "Restored author";
+        saveAuthor(authorName);
+
+        URI uri = UriBuilder.of("/authors/by-name")
+                .queryParam("author", authorName)
+                .build();
+
+        HttpResponse<Author> response = getClient().exchange(HttpRequest.GET(uri), Author.class);
+        assertEquals(HttpStatus.OK, response.status());
+        assertThat(response.body()).isNotNull();
+        assertThat(response.body().getName()).isEqualTo(authorName);
+
+        authorRepository.deleteAll();
+    }
+}
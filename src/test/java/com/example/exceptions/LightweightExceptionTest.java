@@ -0,0 +1,52 @@
+package com.example.exceptions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LightweightExceptionTest {
+
+    @AfterEach
+    void tearDown() {
+        LightweightException.setStackTraces(false);
+    }
+
+    @Test
+    void exceptionsHaveNoStackTraceByDefault() {
+        ConcurrencyLimitExceededException exception = new ConcurrencyLimitExceededException("jdbc");
+        exception.addSuppressed(new IllegalStateException());
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getSuppressed()).isEmpty();
+        assertThat(exception).hasMessage("Too many calls in flight to jdbc");
+    }
+
+    @Test
+    void frequentExceptionsArePreallocated() {
+        assertThat(UserUnauthorizedException.instance()).isSameAs(UserUnauthorizedException.instance());
+        assertThat(AuthorNotFoundException.instance()).isSameAs(AuthorNotFoundException.instance());
+        assertThat(UserUnauthorizedException.instance().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void stackTracesCanBeEnabled() {
+        new ExceptionsConfiguration().setStackTraces(true);
+
+        UserUnauthorizedException exception = UserUnauthorizedException.instance();
+
+        assertThat(exception).isNotSameAs(UserUnauthorizedException.instance());
+        assertThat(exception.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    void stackTracesAreDisabledAgainWhenTheContextShutsDown() {
+        ExceptionsConfiguration configuration = new ExceptionsConfiguration();
+        configuration.setStackTraces(true);
+
+        configuration.close();
+
+        assertThat(LightweightException.isStackTraces()).isFalse();
+        assertThat(UserUnauthorizedException.instance()).isSameAs(UserUnauthorizedException.instance());
+    }
+}
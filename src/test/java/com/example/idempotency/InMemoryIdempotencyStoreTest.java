@@ -0,0 +1,83 @@
+package com.example.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    @Test
+    void theFirstResponseOfAKeyIsKept() {
+        InMemoryIdempotencyStore store = store(Duration.ofHours(1), 10);
+
+        store.save("key", response("first"));
+        store.save("key", response("second"));
+
+        assertThat(store.find("key")).hasValueSatisfying(r -> assertThat(r.fingerprint()).isEqualTo("first"));
+    }
+
+    @Test
+    void aKeyIsReservedOnceUntilItsResponseIsSaved() {
+        InMemoryIdempotencyStore store = store(Duration.ofHours(1), 10);
+
+        assertThat(store.reserve("key", "first")).isEmpty();
+        assertThat(store.reserve("key", "first")).hasValueSatisfying(r -> assertThat(r.isInProgress()).isTrue());
+
+        store.save("key", response("first"));
+
+        assertThat(store.reserve("key", "first")).hasValueSatisfying(r -> assertThat(r.status()).isEqualTo(201));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void aReleasedKeyCanBeReservedAgainButNotASavedOne() {
+        InMemoryIdempotencyStore store = store(Duration.ofHours(1), 10);
+        store.reserve("failed", "first");
+        store.save("saved", response("first"));
+
+        store.release("failed");
+        store.release("saved");
+
+        assertThat(store.reserve("failed", "first")).isEmpty();
+        assertThat(store.find("saved")).isPresent();
+    }
+
+    @Test
+    void theOldestResponsesAreEvictedWhenFull() {
+        InMemoryIdempotencyStore store = store(Duration.ofHours(1), 2);
+
+        store.save("a", response("a"));
+        store.save("b", response("b"));
+        store.save("c", response("c"));
+
+        assertThat(store.find("a")).isEmpty();
+        assertThat(store.find("b")).isPresent();
+        assertThat(store.find("c")).isPresent();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredResponsesAreNotReplayedAndAreEvicted() throws InterruptedException {
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(1), 10);
+        store.save("a", response("a"));
+
+        Thread.sleep(5);
+
+        assertThat(store.find("a")).isEmpty();
+        store.save("a", response("again"));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    private static InMemoryIdempotencyStore store(Duration ttl, int maxEntries) {
+        IdempotencyConfiguration configuration = new IdempotencyConfiguration();
+        configuration.setTtl(ttl);
+        configuration.setMaxEntries(maxEntries);
+        return new InMemoryIdempotencyStore(configuration);
+    }
+
+    private static StoredResponse response(String fingerprint) {
+        return new StoredResponse(fingerprint, 201, new byte[0]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.idempotency;
+
+import com.example.AbstractIntegrationTest;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcIdempotencyStoreTest extends AbstractIntegrationTest {
+
+    @Inject
+    IdempotencyStore store;
+
+    @Inject
+    JdbcOperations jdbcOperations;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("idempotency.store", "jdbc");
+        return props;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcOperations.execute(connection -> connection.createStatement().executeUpdate("DELETE FROM idempotency_key"));
+    }
+
+    @Test
+    void theJdbcStoreIsSelected() {
+        assertThat(store).isInstanceOf(JdbcIdempotencyStore.class);
+    }
+
+    @Test
+    void aSavedResponseIsFoundAndTheFirstOneIsKept() {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        store.save("key", new StoredResponse("Stephen King", 201, body));
+        store.save("key", new StoredResponse("Neil Gaiman", 201, new byte[0]));
+
+        assertThat(store.find("key")).hasValueSatisfying(response -> {
+            assertThat(response.fingerprint()).isEqualTo("Stephen King");
+            assertThat(response.status()).isEqualTo(201);
+            assertThat(response.body()).isEqualTo(body);
+        });
+        assertThat(store.find("unknown")).isEmpty();
+    }
+
+    @Test
+    void onlyOneOfConcurrentRequestsReservesTheKey() throws Exception {
+        int requests = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<StoredResponse>>> reservations = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                reservations.add(executor.submit(() -> {
+                    start.await();
+                    return store.reserve("key", "Stephen King");
+                }));
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Optional<StoredResponse>> reservation : reservations) {
+                Optional<StoredResponse> existing = reservation.get();
+                if (existing.isEmpty()) {
+                    reserved++;
+                } else {
+                    assertThat(existing.get().isInProgress()).isTrue();
+                }
+            }
+            assertThat(reserved).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void theResponseReplacesTheReservationAndIsNotReleased() {
+        store.reserve("key", "Stephen King");
+        store.save("key", new StoredResponse("Stephen King", 201, new byte[0]));
+        store.release("key");
+
+        assertThat(store.reserve("key", "Stephen King"))
+                .hasValueSatisfying(response -> assertThat(response.status()).isEqualTo(201));
+
+        store.reserve("failed", "Neil Gaiman");
+        store.release("failed");
+        assertThat(store.reserve("failed", "Neil Gaiman")).isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the events of a JFR recording by type. Events are also grouped by the value of the first text or
+ * boolean field of their type: the repository method, the OMDB outcome, whether access was granted. It only
+ * depends on the JDK so it can be launched straight from {@code target/test-classes}:
+ * <pre>
+ * java -cp target/test-classes com.example.jfr.JfrSummary demo.jfr
+ * </pre>
+ * Arguments are: the recording and optionally the prefix of the event types to keep ({@code com.example.} by
+ * default). Every group is printed on one line with its count, the total, mean, p50, p99 and max durations in
+ * milliseconds and the sums of the numeric fields (rows, bytes, books), slowest groups first.
+ */
+public final class JfrSummary {
+
+    private final Map<String, Group> groups = new TreeMap<>();
+    private final String prefix;
+
+    JfrSummary(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JfrSummary <recording.jfr> [event type prefix]");
+            System.exit(1);
+        }
+        JfrSummary summary = new JfrSummary(args.length > 1 ? args[1] : "com.example.");
+        summary.read(Path.of(args[0]));
+        System.out.print(summary.format());
+    }
+
+    /**
+     * Add the events of a recording.
+     *
+     * @param recording The recording file
+     * @throws IOException if the file is not a readable recording
+     */
+    void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                add(file.readEvent());
+            }
+        }
+    }
+
+    void add(RecordedEvent event) {
+        EventType type = event.getEventType();
+        if (!type.getName().startsWith(prefix)) {
+            return;
+        }
+        String key = null;
+        for (ValueDescriptor field : event.getFields()) {
+            String typeName = field.getTypeName();
+            if (key == null && (typeName.equals("java.lang.String") || typeName.equals("boolean"))) {
+                key = field.getName() + '=' + event.getValue(field.getName());
+            }
+        }
+        groups.computeIfAbsent(type.getName() + (key == null ? "" : " " + key), name -> new Group())
+                .add(event);
+    }
+
+    /**
+     * @return The groups by name, type then key
+     */
+    Map<String, Group> groups() {
+        return groups;
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-60s %8s %10s %8s %8s %8s %8s  %s%n",
+                "event", "count", "total_ms", "mean_ms", "p50_ms", "p99_ms", "max_ms", "sums"));
+        groups.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Group> entry) -> entry.getValue().total())
+                        .reversed())
+                .forEach(entry -> {
+                    Group group = entry.getValue();
+                    out.append(String.format(Locale.ROOT, "%-60s %8d %10.1f %8.3f %8.3f %8.3f %8.3f  %s%n",
+                            entry.getKey(), group.count(), millis(group.total()),
+                            millis(group.total()) / group.count(), millis(group.percentile(0.50)),
+                            millis(group.percentile(0.99)), millis(group.percentile(1.0)), group.sums()));
+                });
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * The events of one type and key.
+     */
+    static final class Group {
+
+        private static final Set<String> BUILT_IN = Set.of("startTime", "duration");
+
+        private long[] durations = new long[64];
+        private int count;
+        private final Map<String, Long> sums = new LinkedHashMap<>();
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            for (ValueDescriptor field : event.getFields()) {
+                String typeName = field.getTypeName();
+                // -1 stands for unknown in the application events (failed query, no Content-Length)
+                if ((typeName.equals("int") || typeName.equals("long")) && !BUILT_IN.contains(field.getName())) {
+                    long value = ((Number) event.getValue(field.getName())).longValue();
+                    sums.merge(field.getName(), Math.max(value, 0), Long::sum);
+                }
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        long total() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += durations[i];
+            }
+            return total;
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return The duration of that quantile in nanoseconds, nearest rank
+         */
+        long percentile(double quantile) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(quantile * count);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+
+        /**
+         * @return The sums of the numeric fields, e.g. {@code rows=1234}
+         */
+        String sums() {
+            List<String> parts = sums.entrySet().stream()
+                    .map(entry -> entry.getKey() + '=' + entry.getValue())
+                    .toList();
+            return String.join(" ", parts);
+        }
+    }
+}
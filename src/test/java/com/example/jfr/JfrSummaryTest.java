@@ -0,0 +1,109 @@
+package com.example.jfr;
+
+import com.example.entities.AuthorEntity;
+import com.example.entities.BookEntity;
+import com.example.repositories.AuthorRepository;
+import com.example.security.SecurityServiceImpl;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrSummaryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void summarizesTheApplicationEventsByTypeAndKey() throws IOException {
+        Path file = directory.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(AuthorMappingEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(AuthorizationEvent.NAME);
+            recording.enable(OmdbCallEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            SecurityServiceImpl securityService = new SecurityServiceImpl();
+            securityService.canUserAccess("admin");
+            securityService.canUserAccess("guest");
+            securityService.canUserAccess(null);
+            AuthorRepository.dtoOfEntity(author(3));
+            AuthorRepository.dtoOfEntity(author(2));
+            omdbCall(OmdbCallEvent.FOUND, 1000);
+            omdbCall(OmdbCallEvent.NOT_FOUND, -1);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        JfrSummary summary = new JfrSummary("com.example.");
+        summary.read(file);
+
+        assertThat(summary.groups()).containsOnlyKeys(
+                "com.example.AuthorMapping",
+                "com.example.Authorization granted=true",
+                "com.example.Authorization granted=false",
+                "com.example.OmdbCall outcome=found",
+                "com.example.OmdbCall outcome=not_found");
+        assertThat(summary.groups().get("com.example.Authorization granted=false").count()).isEqualTo(2);
+        assertThat(summary.groups().get("com.example.AuthorMapping").sums()).isEqualTo("books=5");
+        // An unknown size is left out of the sum
+        assertThat(summary.groups().get("com.example.OmdbCall outcome=not_found").sums()).isEqualTo("bytes=0");
+        assertThat(summary.format()).contains("com.example.OmdbCall outcome=found").contains("bytes=1000");
+    }
+
+    @Test
+    void defaultSettingsLeaveOutAuthorizationsAndFastMappings() throws IOException {
+        Path file = directory.resolve("defaults.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            new SecurityServiceImpl().canUserAccess("admin");
+            AuthorRepository.dtoOfEntity(author(3));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        JfrSummary summary = new JfrSummary("com.example.");
+        summary.read(file);
+
+        assertThat(summary.groups()).isEmpty();
+    }
+
+    @Test
+    void countsTheRowsOfARepositoryResult() {
+        assertThat(RepositoryQueryInterceptor.rows(null)).isZero();
+        assertThat(RepositoryQueryInterceptor.rows(Optional.empty())).isZero();
+        assertThat(RepositoryQueryInterceptor.rows(Optional.of("x"))).isOne();
+        assertThat(RepositoryQueryInterceptor.rows(List.of("a", "b", "c"))).isEqualTo(3);
+        assertThat(RepositoryQueryInterceptor.rows(42L)).isOne();
+    }
+
+    private static AuthorEntity author(int books) {
+        LocalDateTime now = LocalDateTime.now();
+        AuthorEntity author = new AuthorEntity(1L, "Stephen King", now, Set.of());
+        Set<BookEntity> bookEntities = new HashSet<>();
+        for (int i = 0; i < books; i++) {
+            bookEntities.add(new BookEntity((long) i, "Book " + i, 100, now, author));
+        }
+        return new AuthorEntity(author.id(), author.name(), now, bookEntities);
+    }
+
+    private static void omdbCall(String outcome, long bytes) {
+        OmdbCallEvent event = new OmdbCallEvent();
+        event.begin();
+        event.outcome = outcome;
+        event.title = "Carrie";
+        event.bytes = bytes;
+        event.commit();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.jfr;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Records the repository queries of an author lookup.
+ */
+class RepositoryQueryEventTest extends AbstractIntegrationTest implements AuthorFixture, BookFixture {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void recordsTheQueriesOfAnAuthorLookup() throws IOException {
+        AuthorEntity author = saveAuthor("Stephen King");
+        saveBook("Carrie", author);
+        saveBook("It", author);
+
+        List<RecordedEvent> events = record(() -> {
+            authorRepository.findAuthorByName("Stephen King");
+            authorRepository.findByName("Nobody");
+        });
+
+        // The default method calling both queries is not recorded itself
+        assertThat(events)
+                .extracting(event -> event.getString("method"), event -> event.getInt("rows"))
+                .containsExactly(
+                        tuple("AuthorRepository.findByName", 1),
+                        tuple("AuthorRepository.findBooks", 2),
+                        tuple("AuthorRepository.findByName", 0));
+    }
+
+    @Test
+    void inheritedMethodsAreNamedAfterTheRepository() throws IOException {
+        AuthorEntity author = saveAuthor("Stephen King");
+
+        List<RecordedEvent> events = record(() -> {
+            saveBook("Carrie", author);
+            bookRepository.count();
+        });
+
+        assertThat(events)
+                .extracting(event -> event.getString("method"))
+                .containsExactly("BookRepository.save", "BookRepository.count");
+    }
+
+    @Test
+    void theAuthorMappingIncludesTheBooksQuery() throws IOException {
+        AuthorEntity author = saveAuthor("Stephen King");
+        saveBook("Carrie", author);
+        saveBook("It", author);
+
+        List<RecordedEvent> events = record(() -> authorRepository.findAuthorByName("Stephen King"),
+                RepositoryQueryEvent.NAME, AuthorMappingEvent.NAME);
+
+        RecordedEvent findBooks = events.stream()
+                .filter(event -> "AuthorRepository.findBooks".equals(event.getString("method")))
+                .findFirst()
+                .orElseThrow();
+        RecordedEvent mapping = events.stream()
+                .filter(event -> event.getEventType().getName().equals(AuthorMappingEvent.NAME))
+                .findFirst()
+                .orElseThrow();
+        assertThat(mapping.getInt("books")).isEqualTo(2);
+        assertThat(mapping.getStartTime()).isBeforeOrEqualTo(findBooks.getStartTime());
+        assertThat(mapping.getEndTime()).isAfterOrEqualTo(findBooks.getEndTime());
+    }
+
+    private List<RecordedEvent> record(Runnable queries) throws IOException {
+        return record(queries, RepositoryQueryEvent.NAME);
+    }
+
+    private List<RecordedEvent> record(Runnable queries, String... names) throws IOException {
+        Path file = directory.resolve("queries.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : names) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            queries.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<String> recorded = List.of(names);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> recorded.contains(event.getEventType().getName()))
+                .toList();
+    }
+}
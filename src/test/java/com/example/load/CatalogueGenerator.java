@@ -0,0 +1,334 @@
+package com.example.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the {@code author} and {@code book} tables with a large synthetic catalogue, to run the benchmarks and the
+ * load tests against production-like volumes.
+ * <p>
+ * Names follow a Zipf distribution over common first and last names, so a few names are very frequent, as in a
+ * real catalogue. Authors sharing a name are told apart by middle initials, since author names are unique. The
+ * books per author follow a power law: most authors have one or two books, a few have hundreds. The rows are
+ * streamed to PostgreSQL with the {@code COPY} protocol, without one statement per row:
+ * </p>
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.load.CatalogueGenerator \
+ *     -Dexec.args="jdbc:postgresql://localhost:5432/micronaut micronaut secret 1000000"
+ * </pre>
+ * Arguments are: JDBC url, user, password, optionally the number of authors (1000000), the random seed (42) and
+ * {@code --truncate} to empty the tables first. Without it the tables must be empty, the generated names could
+ * clash with existing ones. Tests call {@link #generate(Connection, int, long)} directly. The summary is printed as
+ * {@code key=value} lines, like {@link LoadGenerator}.
+ */
+public final class CatalogueGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Margaret", "Anthony", "Betty", "Mark", "Sandra",
+            "Donald", "Ashley", "Steven", "Dorothy", "Paul", "Kimberly", "Andrew", "Emily", "Joshua", "Donna",
+            "Kenneth", "Michelle", "Kevin", "Carol", "Brian", "Amanda", "George", "Melissa", "Edward", "Deborah",
+            "Ronald", "Stephanie", "Timothy", "Rebecca", "Jason", "Laura", "Jeffrey", "Sharon", "Ryan", "Cynthia",
+            "Jacob", "Kathleen", "Gary", "Amy", "Nicholas", "Shirley", "Eric", "Angela", "Jonathan", "Helen",
+            "Stephen", "Anna", "Larry", "Brenda", "Justin", "Pamela", "Scott", "Nicole", "Brandon", "Emma",
+            "Carmen", "Lucia", "Javier", "Sofia", "Mateo", "Ingrid", "Lars", "Yuki", "Haruki", "Chloe",
+            "Pierre", "Amelie", "Giulia", "Marco", "Olga", "Ivan", "Aisha", "Omar", "Priya", "Arjun"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+            "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts",
+            "Gomez", "Phillips", "Evans", "Turner", "Diaz", "Parker", "Cruz", "Edwards", "Collins", "Reyes",
+            "Stewart", "Morris", "Morales", "Murphy", "Cook", "Rogers", "Gutierrez", "Ortiz", "Morgan", "Cooper",
+            "Peterson", "Bailey", "Reed", "Kelly", "Howard", "Ramos", "Kim", "Cox", "Ward", "Richardson",
+            "Watson", "Brooks", "Chavez", "Wood", "James", "Bennett", "Gray", "Mendoza", "Ruiz", "Hughes",
+            "Price", "Alvarez", "Castillo", "Sanders", "Patel", "Myers", "Long", "Ross", "Foster", "Jimenez",
+            "O'Brien", "McCarthy", "Schmidt", "Muller", "Schneider", "Fischer", "Weber", "Rossi", "Russo", "Ferrari",
+            "Dubois", "Lefebvre", "Moreau", "Ivanov", "Petrov", "Kowalski", "Nowak", "Jensen", "Hansen", "Larsen",
+            "Tanaka", "Suzuki", "Takahashi", "Watanabe", "Yamamoto", "Chen", "Wang", "Zhang", "Liu", "Singh"
+    };
+
+    private static final String[] TITLE_WORDS = {
+            "Night", "River", "Shadow", "Stone", "Garden", "Winter", "Summer", "House", "Road", "Fire",
+            "Silence", "Storm", "Light", "Secret", "Song", "Sea", "City", "Memory", "Glass", "Dream",
+            "Iron", "Crown", "Wolf", "Island", "Mirror", "Letter", "Field", "Forest", "Bridge", "Harbor",
+            "Silent", "Last", "Lost", "Hidden", "Broken", "Golden", "Long", "Dark", "Burning", "Quiet"
+    };
+
+    private static final double NAME_EXPONENT = 1.0;
+    private static final double BOOKS_EXPONENT = 1.3;
+    private static final int MAX_BOOKS = 2_000;
+    private static final int FLUSH_BYTES = 1 << 16;
+
+    private CatalogueGenerator() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        boolean truncate = Arrays.asList(args).contains("--truncate");
+        String[] positional = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toArray(String[]::new);
+        if (positional.length < 3) {
+            System.err.println("Usage: CatalogueGenerator <jdbc-url> <user> <password> [authors] [seed] [--truncate]");
+            System.exit(1);
+        }
+        int authors = positional.length > 3 ? Integer.parseInt(positional[3]) : 1_000_000;
+        long seed = positional.length > 4 ? Long.parseLong(positional[4]) : 42;
+
+        try (Connection connection = DriverManager.getConnection(positional[0], positional[1], positional[2])) {
+            if (truncate) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE book, author_stats, author");
+                }
+            }
+            Result result = generate(connection, authors, seed);
+            System.out.print(result.summary());
+        }
+    }
+
+    /**
+     * Generate the catalogue in a single transaction, then analyze the tables so the planner sees the new volumes.
+     *
+     * @param connection A connection to PostgreSQL
+     * @param authors    The number of authors
+     * @param seed       The random seed, the same seed generates the same catalogue
+     * @return What was generated
+     * @throws IllegalStateException if the {@code author} table is not empty
+     */
+    public static Result generate(Connection connection, int authors, long seed) throws SQLException {
+        long start = System.nanoTime();
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long firstId = firstAuthorId(connection);
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] books = new int[authors];
+            copyAuthors(copyManager, random.split(), firstId, books);
+            long bookCount = copyBooks(copyManager, random.split(), firstId, books);
+            try (Statement statement = connection.createStatement()) {
+                // The ids were given explicitly, move the identity past them
+                statement.execute(
+                        "SELECT setval(pg_get_serial_sequence('author', 'id'), (SELECT max(id) FROM author))");
+            }
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE author, book, author_stats");
+            }
+            connection.commit();
+            return new Result(authors, bookCount, Arrays.stream(books).max().orElse(0), System.nanoTime() - start);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long firstAuthorId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*), coalesce(max(id), 0) FROM author")) {
+            resultSet.next();
+            if (resultSet.getLong(1) > 0) {
+                throw new IllegalStateException("The author table is not empty, empty it or pass --truncate");
+            }
+            return resultSet.getLong(2) + 1;
+        }
+    }
+
+    private static void copyAuthors(CopyManager copyManager, SplittableRandom random, long firstId, int[] books)
+            throws SQLException {
+        Zipf firstNames = new Zipf(FIRST_NAMES.length, NAME_EXPONENT);
+        Zipf lastNames = new Zipf(LAST_NAMES.length, NAME_EXPONENT);
+        // Authors already named after each first and last name pair, to add initials to the next one
+        int[] homonyms = new int[FIRST_NAMES.length * LAST_NAMES.length];
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+        try (CopyWriter writer = new CopyWriter(copyManager, "COPY author (id, name, date_created) FROM STDIN")) {
+            StringBuilder row = writer.row();
+            for (int i = 0; i < books.length; i++) {
+                int first = firstNames.sample(random);
+                int last = lastNames.sample(random);
+                row.append(firstId + i).append('\t').append(FIRST_NAMES[first]);
+                appendInitials(row, homonyms[first * LAST_NAMES.length + last]++);
+                row.append(' ').append(LAST_NAMES[last]).append('\t');
+                appendDate(row, now, random);
+                row.append('\n');
+                writer.flushIfFull();
+                books[i] = bookCount(random);
+            }
+        }
+    }
+
+    private static long copyBooks(CopyManager copyManager, SplittableRandom random, long firstId, int[] books)
+            throws SQLException {
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        long count = 0;
+        try (CopyWriter writer = new CopyWriter(copyManager,
+                "COPY book (title, pages, date_created, author_id) FROM STDIN")) {
+            StringBuilder row = writer.row();
+            for (int i = 0; i < books.length; i++) {
+                for (int b = 0; b < books[i]; b++) {
+                    appendTitle(row, random);
+                    row.append('\t').append(pages(random)).append('\t');
+                    appendDate(row, now, random);
+                    row.append('\t').append(firstId + i).append('\n');
+                    writer.flushIfFull();
+                }
+                count += books[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Initials telling apart the authors with the same first and last name: none for the first one, then
+     * {@code A.} to {@code Z.}, then {@code A. A.} and so on.
+     */
+    static void appendInitials(StringBuilder row, int homonym) {
+        int start = row.length();
+        // Bijective base 26, least significant initial first, each inserted before the previous ones
+        for (int n = homonym; n > 0; n = (n - 1) / 26) {
+            row.insert(start, " " + (char) ('A' + (n - 1) % 26) + '.');
+        }
+    }
+
+    /**
+     * Books of an author, from a power law: P(books >= k) = k^-exponent, capped at {@value #MAX_BOOKS}.
+     */
+    static int bookCount(SplittableRandom random) {
+        double books = Math.pow(1 - random.nextDouble(), -1 / BOOKS_EXPONENT);
+        return (int) Math.min(MAX_BOOKS, Math.floor(books));
+    }
+
+    private static int pages(SplittableRandom random) {
+        // Log-normal around 300 pages
+        double pages = Math.exp(Math.log(300) + 0.45 * gaussian(random));
+        return (int) Math.max(40, Math.min(1_500, pages));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static void appendTitle(StringBuilder row, SplittableRandom random) {
+        if (random.nextInt(3) == 0) {
+            row.append("The ");
+        }
+        int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                row.append(' ');
+            }
+            row.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+    }
+
+    private static void appendDate(StringBuilder row, long now, SplittableRandom random) {
+        // Spread over the last ten years
+        long seconds = now - random.nextLong(10L * 365 * 24 * 3600);
+        row.append(LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Samples ranks 0 to n - 1 with a probability proportional to 1 / (rank + 1)^exponent.
+     */
+    static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * Rows in the {@code COPY} text format, sent in chunks of {@value #FLUSH_BYTES} bytes. The generated values
+     * never contain a tab, a newline or a backslash, so they are written without escaping.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder row = new StringBuilder(FLUSH_BYTES + 1024);
+
+        CopyWriter(CopyManager copyManager, String sql) throws SQLException {
+            this.copyIn = copyManager.copyIn(sql);
+        }
+
+        StringBuilder row() {
+            return row;
+        }
+
+        void flushIfFull() throws SQLException {
+            if (row.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            row.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                flush();
+                copyIn.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * What was generated.
+     */
+    public record Result(int authors, long books, int maxBooks, long nanos) {
+
+        String summary() {
+            double seconds = nanos / 1_000_000_000.0;
+            return "authors=" + authors + System.lineSeparator()
+                    + "books=" + books + System.lineSeparator()
+                    + "max_books_per_author=" + maxBooks + System.lineSeparator()
+                    + "seconds=" + String.format(Locale.ROOT, "%.1f", seconds) + System.lineSeparator()
+                    + "rows_per_second=" + String.format(Locale.ROOT, "%.0f", (authors + books) / seconds)
+                    + System.lineSeparator();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.load;
+
+import com.example.AbstractIntegrationTest;
+import com.example.fixtures.AuthorFixture;
+import io.micronaut.context.annotation.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loads a small catalogue with {@link CatalogueGenerator}, through its own connection as the command line does.
+ */
+class CatalogueGeneratorTest extends AbstractIntegrationTest implements AuthorFixture {
+
+    @Value("${datasources.default.url}")
+    String url;
+
+    @Value("${datasources.default.username}")
+    String username;
+
+    @Value("${datasources.default.password}")
+    String password;
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void generatesUniqueAuthorsWithSkewedBookCounts() throws SQLException {
+        try (Connection connection = connect()) {
+            CatalogueGenerator.Result result = CatalogueGenerator.generate(connection, 5_000, 7);
+
+            assertThat(authorRepository.count()).isEqualTo(5_000);
+            assertThat(bookRepository.count()).isEqualTo(result.books());
+            // Most authors have a single book, a few have a lot
+            assertThat(scalar(connection, "SELECT percentile_disc(0.5) WITHIN GROUP (ORDER BY n) "
+                    + "FROM (SELECT count(*) AS n FROM book GROUP BY author_id) counts")).isEqualTo(1);
+            assertThat(result.maxBooks()).isGreaterThan(50);
+            // Frequent names repeat, told apart by their initials
+            assertThat(scalar(connection, "SELECT count(*) FROM author WHERE name LIKE '% _. %'")).isPositive();
+        }
+    }
+
+    @Test
+    void theSameSeedGeneratesTheSameCatalogue() throws SQLException {
+        try (Connection connection = connect()) {
+            CatalogueGenerator.Result first = CatalogueGenerator.generate(connection, 500, 42);
+            String names = names(connection);
+            deleteCatalogue();
+
+            CatalogueGenerator.Result second = CatalogueGenerator.generate(connection, 500, 42);
+
+            assertThat(second.books()).isEqualTo(first.books());
+            assertThat(names(connection)).isEqualTo(names);
+        }
+    }
+
+    @Test
+    void refusesToLoadIntoANonEmptyCatalogue() throws SQLException {
+        saveAuthor("Stephen King");
+
+        try (Connection connection = connect()) {
+            assertThatThrownBy(() -> CatalogueGenerator.generate(connection, 10, 42))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(authorRepository.count()).isOne();
+    }
+
+    @Test
+    void initialsTellHomonymsApart() {
+        assertThat(initials(0)).isEmpty();
+        assertThat(initials(1)).isEqualTo(" A.");
+        assertThat(initials(26)).isEqualTo(" Z.");
+        assertThat(initials(27)).isEqualTo(" A. A.");
+        assertThat(initials(28)).isEqualTo(" A. B.");
+    }
+
+    @Test
+    void bookCountsFollowAPowerLaw() {
+        SplittableRandom random = new SplittableRandom(1);
+        int single = 0;
+        int hundredOrMore = 0;
+        for (int i = 0; i < 100_000; i++) {
+            int books = CatalogueGenerator.bookCount(random);
+            assertThat(books).isBetween(1, 2_000);
+            single += books == 1 ? 1 : 0;
+            hundredOrMore += books >= 100 ? 1 : 0;
+        }
+        // P(books >= k) = k^-1.3: 59% of the authors have a single book, 0.25% a hundred or more
+        assertThat(single).isBetween(57_000, 61_000);
+        assertThat(hundredOrMore).isBetween(150, 400);
+    }
+
+    private static String initials(int homonym) {
+        StringBuilder row = new StringBuilder();
+        CatalogueGenerator.appendInitials(row, homonym);
+        return row.toString();
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static long scalar(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String names(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT string_agg(name, ',' ORDER BY id) FROM author")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator used by the benchmark scripts.
+ * <p>
+ * Each worker sends requests back to back, cycling over the given paths, and records the latency of
+ * every request. It only depends on the JDK so it can be launched straight from
+ * {@code target/test-classes} against the JVM jar, a native binary or a container:
+ * </p>
+ * <pre>
+ * java -cp target/test-classes com.example.load.LoadGenerator http://localhost:8080 30 32
+ * </pre>
+ * Arguments are: base url, duration in seconds, concurrency and optionally the paths to request.
+ * The summary is printed as {@code key=value} lines so scripts can parse it. Requests shed by the server
+ * with a {@code 503} are counted as {@code rejected} and left out of the other figures.
+ */
+public final class LoadGenerator {
+
+    static final List<String> DEFAULT_PATHS = List.of(
+            "/authors/by-name?author=Stephen%20King&username=admin",
+            "/movies/by-title?title=Carrie");
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final List<String> paths;
+
+    LoadGenerator(String baseUrl, List<String> paths) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = URI.create(baseUrl);
+        this.paths = paths;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        List<String> paths = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : DEFAULT_PATHS;
+
+        Result result = new LoadGenerator(baseUrl, paths).run(Duration.ofSeconds(seconds), concurrency);
+        System.out.print(result.summary());
+    }
+
+    /**
+     * Run the workload.
+     *
+     * @param duration    How long to send requests for
+     * @param concurrency The number of concurrent workers
+     * @return The aggregated result
+     */
+    Result run(Duration duration, int concurrency) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(i);
+                futures.add(executor.submit(() -> worker.run(deadline)));
+            }
+        }
+
+        Result result = new Result(duration);
+        for (Future<Worker> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    private final class Worker {
+
+        private final int offset;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int rejected;
+
+        Worker(int offset) {
+            this.offset = offset;
+        }
+
+        Worker run(long deadline) {
+            int i = offset;
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(paths.get(i++ % paths.size())))
+                        .timeout(Duration.ofSeconds(10))
+                        .GET()
+                        .build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 503) {
+                        rejected++;
+                        continue;
+                    }
+                    if (response.statusCode() >= 500) {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return this;
+                }
+                record(System.nanoTime() - start);
+            }
+            return this;
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    /**
+     * Aggregated latencies of all the workers.
+     */
+    static final class Result {
+
+        private final Duration duration;
+        private long[] latencies = new long[0];
+        private int errors;
+        private int rejected;
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        void add(Worker worker) {
+            int previous = latencies.length;
+            latencies = Arrays.copyOf(latencies, previous + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, previous, worker.count);
+            errors += worker.errors;
+            rejected += worker.rejected;
+        }
+
+        long requests() {
+            return latencies.length;
+        }
+
+        double throughput() {
+            return latencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        String summary() {
+            return "requests=" + requests() + System.lineSeparator()
+                    + "errors=" + errors + System.lineSeparator()
+                    + "rejected=" + rejected + System.lineSeparator()
+                    + "throughput=" + String.format(Locale.ROOT, "%.1f", throughput()) + System.lineSeparator()
+                    + "p50_ms=" + String.format(Locale.ROOT, "%.2f", percentileMillis(50)) + System.lineSeparator()
+                    + "p99_ms=" + String.format(Locale.ROOT, "%.2f", percentileMillis(99)) + System.lineSeparator()
+                    + "max_ms=" + String.format(Locale.ROOT, "%.2f", percentileMillis(100)) + System.lineSeparator();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.omdb;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    void theFrequencyOfAKeyIsAtLeastItsCount() {
+        CountMinSketch sketch = new CountMinSketch(1000);
+        for (int key = 0; key < 500; key++) {
+            for (int i = 0; i < key % 10; i++) {
+                sketch.increment("title " + key);
+            }
+        }
+
+        for (int key = 0; key < 500; key++) {
+            assertThat(sketch.frequency("title " + key)).isGreaterThanOrEqualTo(key % 10);
+        }
+    }
+
+    @Test
+    void aHotKeyStandsOutOfTheColdOnes() {
+        CountMinSketch sketch = new CountMinSketch(1000);
+        for (int key = 0; key < 1000; key++) {
+            sketch.increment("title " + key);
+        }
+        for (int i = 0; i < 50; i++) {
+            sketch.increment("carrie");
+        }
+
+        assertThat(sketch.frequency("carrie")).isBetween(50, 55);
+        assertThat(sketch.frequency("never seen")).isLessThan(5);
+    }
+
+    @Test
+    void countsAreHalvedOnceTheSketchIsFull() {
+        CountMinSketch sketch = new CountMinSketch(8);
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("carrie");
+        }
+        assertThat(sketch.frequency("carrie")).isEqualTo(40);
+
+        // The sketch is 8 wide, so it ages after 80 additions
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("the stand");
+        }
+
+        assertThat(sketch.frequency("carrie")).isLessThanOrEqualTo(20 + 40);
+        assertThat(sketch.frequency("the stand")).isLessThanOrEqualTo(20 + 40);
+        assertThat(sketch.frequency("carrie") + sketch.frequency("the stand")).isLessThan(80);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.omdb;
+
+import io.micronaut.http.codec.CodecException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieBodyReaderTest {
+
+    @Test
+    void recordedResponsesAreDecoded() throws IOException {
+        assertThat(decodeResource("star-wars.json"))
+                .extracting(Movie::getTitle, Movie::getYear)
+                .containsExactly("Star Wars: Episode IV - A New Hope", "1977");
+        assertThat(decodeResource("carrie-full-plot.json"))
+                .extracting(Movie::getTitle, Movie::getYear)
+                .containsExactly("Carrie", "1976");
+    }
+
+    @Test
+    void notFoundResponseHasNoTitle() throws IOException {
+        Movie movie = decodeResource("not-found.json");
+
+        assertThat(movie.getTitle()).isNull();
+        assertThat(movie.getYear()).isNull();
+    }
+
+    @Test
+    void fieldsAreFoundAfterSkippedSubtrees() throws IOException {
+        Movie movie = decode("""
+                {"Ratings":[{"Source":"Metacritic","Value":"90/100"},[1,[2]]],
+                 "Extra":{"Title":"Nested","Year":{"Year":"0"}},
+                 "Year":"1977","Response":"True","Title":"Star Wars"}""");
+
+        assertThat(movie.getTitle()).isEqualTo("Star Wars");
+        assertThat(movie.getYear()).isEqualTo("1977");
+    }
+
+    @Test
+    void decodingStopsOnceBothFieldsAreFound() throws IOException {
+        // Anything after the two fields is never tokenized, not even the broken JSON
+        Movie movie = decode("{\"Title\":\"Carrie\",\"Year\":\"1976\",\"Plot\":[}");
+
+        assertThat(movie.getTitle()).isEqualTo("Carrie");
+        assertThat(movie.getYear()).isEqualTo("1976");
+    }
+
+    @Test
+    void nullAndNumberValues() throws IOException {
+        Movie movie = decode("{\"Title\":null,\"Year\":1977}");
+
+        assertThat(movie.getTitle()).isNull();
+        assertThat(movie.getYear()).isEqualTo("1977");
+    }
+
+    @Test
+    void notAnObjectIsRejected() {
+        assertThatThrownBy(() -> decode("[]")).isInstanceOf(CodecException.class);
+    }
+
+    private static Movie decode(String json) throws IOException {
+        return MovieBodyReader.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Movie decodeResource(String name) throws IOException {
+        try (InputStream inputStream = MovieBodyReaderTest.class.getResourceAsStream("/omdb/" + name)) {
+            return MovieBodyReader.decode(inputStream);
+        }
+    }
+}
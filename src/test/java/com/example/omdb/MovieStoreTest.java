@@ -0,0 +1,277 @@
+package com.example.omdb;
+
+import com.example.AbstractServerTest;
+import com.example.entities.MovieEntity;
+import com.example.repositories.MovieRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.io.socket.SocketUtils;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.transaction.TransactionOperations;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the movie store, in front of a mock OMDB API that counts its calls.
+ */
+class MovieStoreTest extends AbstractServerTest {
+
+    private static final AtomicInteger OMDB_CALLS = new AtomicInteger();
+    private static final List<String> OMDB_TITLES = new CopyOnWriteArrayList<>();
+
+    private final int omdbPort = SocketUtils.findAvailableTcpPort();
+    private EmbeddedServer omdbServer;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    MovieStore movieStore;
+
+    @Inject
+    MovieRepository movieRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    JdbcOperations jdbcOperations;
+
+    @Inject
+    TransactionOperations<Connection> transactionOperations;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("omdb.base-url", "http://localhost:" + omdbPort);
+        props.put("movie-store.enabled", "true");
+        props.put("movie-store.ttl", "1h");
+        props.put("movie-store.max-stale", "1d");
+        props.put("movie-store.hot-entries", "2");
+        props.put("movie-store.refresh-after", "30m");
+        props.put("movie-store.refresh-min-requests", "3");
+        // refreshAhead is called by the tests
+        props.put("movie-store.refresh-interval", "1h");
+        return props;
+    }
+
+    @BeforeAll
+    void startOmdbMock() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("micronaut.server.port", omdbPort);
+        config.put("spec.name", "MovieStoreTest");
+        config.put("datasources.default.db-type", "postgres");
+        config.put("datasources.default.dialect", "POSTGRES");
+        config.put("datasources.default.driver-class-name", "org.postgresql.Driver");
+        config.put("datasources.default.schema-generate", "NONE");
+        config.put("mockSecurityService", "true");
+        omdbServer = ApplicationContext.run(EmbeddedServer.class, config);
+    }
+
+    @AfterAll
+    void stopOmdbMock() {
+        if (omdbServer != null) {
+            omdbServer.close();
+        }
+    }
+
+    @BeforeEach
+    void resetOmdbCalls() {
+        OMDB_CALLS.set(0);
+        OMDB_TITLES.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionOperations.executeWrite(status ->
+                jdbcOperations.prepareStatement("DELETE FROM movie", statement -> statement.executeUpdate()));
+    }
+
+    @Test
+    void aMovieIsFetchedOnceThenServedFromTheStore() {
+        Optional<Movie> first = movieStore.findMovieByTitle("Carrie");
+        Optional<Movie> second = movieStore.findMovieByTitle("  CARRIE ");
+
+        assertThat(first).map(Movie::getTitle).contains("Carrie");
+        assertThat(second).map(Movie::getTitle).contains("Carrie");
+        assertThat(OMDB_CALLS).hasValue(1);
+        assertThat(movieRepository.findById("carrie")).map(MovieEntity::year).contains("1976");
+    }
+
+    @Test
+    void aMissingMovieIsStoredToo() {
+        assertThat(movieStore.findMovieByTitle("Unknown")).isEmpty();
+        assertThat(movieStore.findMovieByTitle("Unknown")).isEmpty();
+
+        assertThat(OMDB_CALLS).hasValue(1);
+        assertThat(movieRepository.findById("unknown")).map(MovieEntity::title).isEmpty();
+    }
+
+    @Test
+    void theVariantsOfATitleShareTheMovieOmdbReturnedForThem() {
+        String canonical = "Star Wars: Episode IV - A New Hope";
+
+        assertThat(movieStore.findMovieByTitle("Star Wars")).map(Movie::getTitle).contains(canonical);
+        assertThat(movieStore.findMovieByTitle("star  WARS")).map(Movie::getTitle).contains(canonical);
+        assertThat(movieStore.findMovieByTitle(canonical)).map(Movie::getTitle).contains(canonical);
+
+        assertThat(OMDB_CALLS).hasValue(1);
+        assertThat(movieRepository.findByKeyOrAlias("star wars"))
+                .map(MovieEntity::titleKey)
+                .contains("star wars: episode iv - a new hope");
+    }
+
+    @Test
+    void aStaleMovieIsServedWhileItIsFetchedAgain() throws InterruptedException {
+        insert("stand", "The Stand (stale)", Instant.now().minus(Duration.ofHours(2)), 0);
+
+        assertThat(movieStore.findMovieByTitle("The Stand")).map(Movie::getTitle).contains("The Stand (stale)");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!movieRepository.findById("stand").map(MovieEntity::title).orElseThrow().equals("The Stand")) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(OMDB_CALLS).hasValue(1);
+        assertThat(movieStore.findMovieByTitle("The Stand")).map(Movie::getTitle).contains("The Stand");
+    }
+
+    @Test
+    void theMostRequestedMoviesArePreloadedAndServedWithoutOmdb() {
+        insert("it", "It", Instant.now(), 30);
+        insert("misery", "Misery", Instant.now(), 20);
+        insert("cujo", "Cujo", Instant.now(), 10);
+
+        movieStore.preload(new StartupEvent(applicationContext));
+
+        assertThat(movieStore.isHot("it")).isTrue();
+        assertThat(movieStore.isHot("misery")).isTrue();
+        assertThat(movieStore.isHot("cujo")).isFalse();
+        assertThat(movieStore.findMovieByTitle("It")).map(Movie::getTitle).contains("It");
+        assertThat(OMDB_CALLS).hasValue(0);
+    }
+
+    @Test
+    void aPopularMovieIsRefreshedBeforeItExpires() throws InterruptedException {
+        insert("salem's lot", "Salem's Lot", Instant.now().minus(Duration.ofMinutes(40)), 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(movieStore.findMovieByTitle("Salem's Lot")).map(Movie::getYear).contains("1990");
+        }
+
+        movieStore.refreshAhead();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!movieRepository.findById("salem's lot").map(MovieEntity::year).orElseThrow().equals("1976")) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(OMDB_CALLS).hasValue(1);
+    }
+
+    @Test
+    void aPopularMissingMovieIsRefreshedWithTheTitleItWasRequestedWith() throws InterruptedException {
+        // Stored as is: the driver would round the nanoseconds, maybe after fetchedAt
+        Instant fetchedAt = Instant.now().minus(Duration.ofMinutes(40)).truncatedTo(ChronoUnit.MICROS);
+        insert("other unknown", null, "The Other Unknown", fetchedAt, 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(movieStore.findMovieByTitle("The Other Unknown")).isEmpty();
+        }
+
+        movieStore.refreshAhead();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!movieRepository.findById("other unknown").orElseThrow().fetchedAt().isAfter(fetchedAt)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(OMDB_TITLES).containsExactly("The Other Unknown");
+    }
+
+    @Test
+    void anUnpopularMovieIsNotRefreshed() {
+        insert("rage", "Rage", Instant.now().minus(Duration.ofMinutes(40)), 0);
+        movieStore.findMovieByTitle("Rage");
+        double scheduled = meterRegistry.counter("movie_store.refreshes", "result", "scheduled").count();
+
+        movieStore.refreshAhead();
+
+        assertThat(meterRegistry.counter("movie_store.refreshes", "result", "scheduled").count()).isEqualTo(scheduled);
+        assertThat(OMDB_CALLS).hasValue(0);
+    }
+
+    @Test
+    void requestsAreCountedInTheStore() {
+        movieStore.findMovieByTitle("Christine");
+        movieStore.findMovieByTitle("Christine");
+
+        movieStore.flushHits();
+
+        assertThat(movieRepository.findById("christine")).map(MovieEntity::hits).contains(2L);
+    }
+
+    private void insert(String key, String title, Instant fetchedAt, long hits) {
+        insert(key, title, title, fetchedAt, hits);
+    }
+
+    private void insert(String key, String title, String requestedTitle, Instant fetchedAt, long hits) {
+        transactionOperations.executeWrite(status -> jdbcOperations.prepareStatement("""
+                        INSERT INTO movie (title_key, title, requested_title, year, fetched_at, hits)
+                        VALUES (?, ?, ?, '1990', ?, ?)""",
+                statement -> {
+                    statement.setString(1, key);
+                    statement.setString(2, title);
+                    statement.setString(3, requestedTitle);
+                    statement.setTimestamp(4, Timestamp.from(fetchedAt));
+                    statement.setLong(5, hits);
+                    return statement.executeUpdate();
+                }));
+    }
+
+    @Controller("/")
+    @Requires(property = "spec.name", value = "MovieStoreTest")
+    static class CountingOmdbMock {
+
+        @Get
+        String findMovie(@QueryValue("t") String title) {
+            OMDB_CALLS.incrementAndGet();
+            OMDB_TITLES.add(title);
+            if (title.equalsIgnoreCase("star wars")) {
+                return """
+                        {"Title":"Star Wars: Episode IV - A New Hope","Year":"1977","Response":"True"}""";
+            }
+            if (title.endsWith("Unknown")) {
+                return """
+                        {"Response":"False","Error":"Movie not found!"}""";
+            }
+            return """
+                    {"Title":"%s","Year":"1976","Response":"True"}""".formatted(title.strip());
+        }
+    }
+}
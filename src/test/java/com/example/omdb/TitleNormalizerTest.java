@@ -0,0 +1,39 @@
+package com.example.omdb;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleNormalizerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Carrie", "carrie ", "CARRIE", "  carrie", "\tCaRRie\n", "Ｃａｒｒｉｅ"})
+    void theVariantsOfATitleShareTheSameKey(String title) {
+        assertThat(TitleNormalizer.normalize(title)).isEqualTo("carrie");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "The Stand           | stand",
+            "Stand, The          | stand",
+            "A Quiet Place       | quiet place",
+            "An American Werewolf in London | american werewolf in london",
+            "the   dead  zone    | dead zone",
+            "The                 | the",
+            "Theater             | theater",
+            "ﬁght club           | fight club",
+            "ΟΔΥΣΣΕΑΣ            | οδυσσεασ",
+            "Salem's Lot         | salem's lot"
+    })
+    void titlesAreNormalized(String title, String key) {
+        assertThat(TitleNormalizer.normalize(title)).isEqualTo(key);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"carrie", "salem's lot", "star wars: episode iv - a new hope", ""})
+    void aNormalizedTitleIsReturnedAsIs(String title) {
+        assertThat(TitleNormalizer.normalize(title)).isSameAs(title);
+    }
+}
@@ -1,19 +1,71 @@
 package com.example.openapi;
 
 import com.example.AbstractServerTest;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.runtime.server.EmbeddedServer;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class OpenApiTest extends AbstractServerTest {
 
+    private static final String SPEC = "/swagger/demo-0.1.yml";
+
+    @Inject
+    EmbeddedServer server;
+
     @Test
     void openApiYmlFileIsExposed() {
-        HttpResponse<?> response = getClient().exchange(HttpRequest.GET("/swagger/demo-0.1.yml"));
+        HttpResponse<?> response = getClient().exchange(HttpRequest.GET(SPEC));
 
         assertEquals(HttpStatus.OK, response.status());
     }
+
+    @Test
+    void precompressedSpecIsServedToGzipClients() throws IOException, InterruptedException {
+        // The Micronaut client inflates gzip responses and drops their Content-Encoding, the JDK client does not
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            java.net.http.HttpResponse<byte[]> identity = client.send(spec("identity"), BodyHandlers.ofByteArray());
+            java.net.http.HttpResponse<byte[]> gzip = client.send(spec("gzip"), BodyHandlers.ofByteArray());
+
+            assertThat(identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+            assertThat(gzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+            assertThat(gzip.headers().firstValue(HttpHeaders.ETAG))
+                    .isNotEqualTo(identity.headers().firstValue(HttpHeaders.ETAG));
+            assertThat(gzip.headers().firstValue(HttpHeaders.CACHE_CONTROL))
+                    .contains(SwaggerResourceFilter.CACHE_CONTROL);
+            assertThat(gzip.headers().firstValue(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+                assertThat(inputStream.readAllBytes()).isEqualTo(identity.body());
+            }
+        }
+    }
+
+    private java.net.http.HttpRequest spec(String acceptEncoding) {
+        return java.net.http.HttpRequest.newBuilder(server.getURI().resolve(SPEC))
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .build();
+    }
+
+    @Test
+    void unchangedSpecIsNotSentAgain() {
+        String etag = getClient().exchange(HttpRequest.GET(SPEC)).header(HttpHeaders.ETAG);
+
+        HttpResponse<?> response = getClient().exchange(HttpRequest.GET(SPEC).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.status());
+        assertThat(response.header(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwaggerResourceFilterTest {
+
+    @Test
+    void requestPathsAreMappedToTheClasspath() {
+        assertThat(SwaggerResourceFilter.classpathPath("/swagger/demo-0.1.yml"))
+                .isEqualTo("META-INF/swagger/demo-0.1.yml");
+        assertThat(SwaggerResourceFilter.classpathPath("/swagger-ui/index.html"))
+                .isEqualTo("META-INF/swagger/views/swagger-ui/index.html");
+        assertThat(SwaggerResourceFilter.classpathPath("/authors/by-name")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/swagger/", "/swagger/views", "/swagger/views/", "/swagger/../application.yml",
+            "/swagger//demo-0.1.yml", "/swagger-ui/"})
+    void directoriesAndTraversalsAreNotResources(String path) {
+        assertThat(SwaggerResourceFilter.classpathPath(path)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "gzip, deflate, br", "br;q=1.0, GZIP;q=0.5", "*", "deflate, *;q=0.1"})
+    void gzipIsAccepted(String acceptEncoding) {
+        assertThat(SwaggerResourceFilter.acceptsGzip(acceptEncoding)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip; q=0.000, *", "gzipx"})
+    void gzipIsNotAccepted(String acceptEncoding) {
+        assertThat(SwaggerResourceFilter.acceptsGzip(acceptEncoding)).isFalse();
+        assertThat(SwaggerResourceFilter.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void entityTagsAreComparedWeakly() {
+        assertThat(SwaggerResourceFilter.matches("\"abc\"", "\"abc\"")).isTrue();
+        assertThat(SwaggerResourceFilter.matches("W/\"abc\"", "\"abc\"")).isTrue();
+        assertThat(SwaggerResourceFilter.matches("\"old\", \"abc\"", "\"abc\"")).isTrue();
+        assertThat(SwaggerResourceFilter.matches("*", "\"abc\"")).isTrue();
+        assertThat(SwaggerResourceFilter.matches("\"abc-gzip\"", "\"abc\"")).isFalse();
+        assertThat(SwaggerResourceFilter.matches(null, "\"abc\"")).isFalse();
+    }
+}
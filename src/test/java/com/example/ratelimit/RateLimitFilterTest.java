@@ -0,0 +1,160 @@
+package com.example.ratelimit;
+
+import com.example.AbstractServerTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.server.HttpServerConfiguration;
+import io.micronaut.http.server.util.DefaultHttpClientAddressResolver;
+import io.micronaut.http.uri.UriBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest extends AbstractServerTest {
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("rate-limit.enabled", "true");
+        props.put("rate-limit.mode", "token-bucket");
+        props.put("rate-limit.capacity", "2");
+        props.put("rate-limit.requests-per-second", "0.01");
+        return props;
+    }
+
+    @Test
+    void aClientOverItsLimitGets429WithRetryAfterWhateverItSends() {
+        assertEquals(HttpStatus.NOT_FOUND, status(findAuthor("alice")));
+        assertEquals(HttpStatus.NOT_FOUND, status(findAuthor("alice")));
+
+        HttpClientResponseException ex = exchange(findAuthor("alice"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        assertThat(ex.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER)).isEqualTo("100");
+        // Neither the username nor an API key header give a fresh limit
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(findAuthor("bob")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(HttpRequest.GET(findAuthor("carol").getUri())
+                .header("X-Api-Key", "carol-key")));
+    }
+
+    @Test
+    void clientsBehindAProxyAreLimitedByTheirForwardedAddress() {
+        assertEquals(HttpStatus.NOT_FOUND, status(forwardedFor("203.0.113.1")));
+        assertEquals(HttpStatus.NOT_FOUND, status(forwardedFor("203.0.113.1")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(forwardedFor("203.0.113.1")));
+
+        // Same proxy, another client
+        assertEquals(HttpStatus.NOT_FOUND, status(forwardedFor("203.0.113.2")));
+    }
+
+    @Test
+    void theConfiguredClientAddressHeaderIsUsed() {
+        HttpServerConfiguration serverConfiguration = new HttpServerConfiguration();
+        serverConfiguration.setClientAddressHeader("X-Real-IP");
+        RateLimitFilter filter = filter(RateLimitConfiguration.Mode.TOKEN_BUCKET, serverConfiguration);
+
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors").header("X-Real-IP", "192.0.2.1"))).isNull();
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors").header("X-Real-IP", "192.0.2.2"))).isNull();
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.2/authors").header("X-Real-IP", "192.0.2.1")))
+                .extracting(HttpResponse::getStatus).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void resolvedAddressesAreParsedWithoutLookup() throws UnknownHostException {
+        assertThat(RateLimitFilter.address("192.0.2.60:8080")).isEqualTo(InetAddress.getByName("192.0.2.60"));
+        assertThat(RateLimitFilter.address("[2001:db8::1]:4711")).isEqualTo(InetAddress.getByName("2001:db8::1"));
+        assertThat(RateLimitFilter.address(" 2001:db8::1 ")).isEqualTo(InetAddress.getByName("2001:db8::1"));
+        assertThat(RateLimitFilter.address("unknown")).isNull();
+        assertThat(RateLimitFilter.address("_hidden")).isNull();
+        assertThat(RateLimitFilter.address("proxy.example.com")).isNull();
+        assertThat(RateLimitFilter.address("256.0.0.1")).isNull();
+        assertThat(RateLimitFilter.address("1:2")).isNull();
+        assertThat(RateLimitFilter.address(null)).isNull();
+    }
+
+    @Test
+    void clientsAreLimitedIndependently() {
+        RateLimitFilter filter = filter(RateLimitConfiguration.Mode.TOKEN_BUCKET);
+
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors"))).isNull();
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors")))
+                .extracting(HttpResponse::getStatus).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.2/authors"))).isNull();
+    }
+
+    @Test
+    void ipv6ClientsAreIdentifiedByTheirNetwork() throws UnknownHostException {
+        assertThat(RateLimitFilter.client(InetAddress.getByName("10.0.0.1"))).isEqualTo("10.0.0.1");
+        assertThat(RateLimitFilter.client(InetAddress.getByName("2001:db8::1")))
+                .isEqualTo(RateLimitFilter.client(InetAddress.getByName("2001:db8::ffff:1")))
+                .isNotEqualTo(RateLimitFilter.client(InetAddress.getByName("2001:db8:0:1::1")));
+    }
+
+    @Test
+    void theEvictionKeepsTheRequestsInFlight() {
+        RateLimitFilter filter = filter(RateLimitConfiguration.Mode.CONCURRENCY);
+        HttpRequest<?> first = HttpRequest.GET("http://10.0.0.1/authors");
+
+        assertThat(filter.limit(first)).isNull();
+        filter.evictIdleClients();
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors")))
+                .extracting(HttpResponse::getStatus).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        filter.release(first, HttpResponse.ok());
+        filter.evictIdleClients();
+        assertThat(filter.limit(HttpRequest.GET("http://10.0.0.1/authors"))).isNull();
+    }
+
+    private static RateLimitFilter filter(RateLimitConfiguration.Mode mode) {
+        return filter(mode, new HttpServerConfiguration());
+    }
+
+    private static RateLimitFilter filter(RateLimitConfiguration.Mode mode,
+                                          HttpServerConfiguration serverConfiguration) {
+        RateLimitConfiguration configuration = new RateLimitConfiguration();
+        configuration.setMode(mode);
+        configuration.setCapacity(1);
+        configuration.setRequestsPerSecond(0.01);
+        configuration.setMaxConcurrent(1);
+        return new RateLimitFilter(configuration, new DefaultHttpClientAddressResolver(serverConfiguration),
+                new SimpleMeterRegistry());
+    }
+
+    private static HttpRequest<?> findAuthor(String username) {
+        URI uri = UriBuilder.of("/authors/by-name")
+                .queryParam("author", "Nobody")
+                .queryParam("username", username)
+                .build();
+        return HttpRequest.GET(uri);
+    }
+
+    private static HttpRequest<?> forwardedFor(String address) {
+        return HttpRequest.GET(findAuthor("alice").getUri()).header("X-Forwarded-For", address);
+    }
+
+    private HttpStatus status(HttpRequest<?> request) {
+        return exchange(request).getStatus();
+    }
+
+    private HttpClientResponseException exchange(HttpRequest<?> request) {
+        try {
+            getClient().exchange(request, Argument.of(String.class), Argument.of(String.class));
+            throw new AssertionError("Expected an error response");
+        } catch (HttpClientResponseException e) {
+            return e;
+        }
+    }
+}
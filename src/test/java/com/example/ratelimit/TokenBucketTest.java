@@ -0,0 +1,43 @@
+package com.example.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void aBurstUpToTheCapacityIsAllowed() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void tokensAreRefilledAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+    }
+
+    @Test
+    void anIdleBucketIsFullAgain() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.isFull(SECOND)).isFalse();
+        assertThat(bucket.isFull(2 * SECOND)).isTrue();
+        assertThat(bucket.tryAcquire(2 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(2 * SECOND)).isZero();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.reactive;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveDatabaseTest {
+
+    @Test
+    void derivesTheR2dbcUrlOfTheDefaultDatasource() {
+        assertThat(ReactiveDatabase.r2dbcUrl("jdbc:postgresql://db:5432/demo"))
+                .isEqualTo("r2dbc:postgresql://db:5432/demo?sslMode=prefer");
+    }
+
+    @Test
+    void dropsTheParametersOfTheJdbcDriverOnly() {
+        assertThat(ReactiveDatabase.r2dbcUrl("jdbc:postgresql://localhost:32768/test?loggerLevel=OFF"))
+                .isEqualTo("r2dbc:postgresql://localhost:32768/test?sslMode=prefer");
+    }
+
+    @Test
+    void keepsTheTlsAndSchemaParameters() {
+        String url = ReactiveDatabase.r2dbcUrl("jdbc:postgresql://db:5432/demo"
+                + "?sslmode=verify-ca&sslrootcert=/etc/ssl/root%20ca.crt&currentSchema=library&connectTimeout=3");
+
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url);
+        assertThat(options.getValue(ConnectionFactoryOptions.DATABASE)).isEqualTo("demo");
+        assertThat(options.getValue(Option.valueOf("sslMode"))).isEqualTo("verify-ca");
+        assertThat(options.getValue(Option.valueOf("sslRootCert")))
+                .isEqualTo("/etc/ssl/root ca.crt");
+        assertThat(options.getValue(Option.valueOf("schema"))).isEqualTo("library");
+        assertThat(Duration.parse((String) options.getValue(ConnectionFactoryOptions.CONNECT_TIMEOUT)))
+                .isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void sslAloneVerifiesTheServerLikeTheJdbcDriver() {
+        assertThat(ReactiveDatabase.r2dbcUrl("jdbc:postgresql://db:5432/demo?ssl=true"))
+                .isEqualTo("r2dbc:postgresql://db:5432/demo?sslMode=verify-full");
+        assertThat(ReactiveDatabase.r2dbcUrl("jdbc:postgresql://db:5432/demo?ssl=true&sslmode=require"))
+                .isEqualTo("r2dbc:postgresql://db:5432/demo?sslMode=require");
+    }
+
+    @Test
+    void rejectsAParameterWithoutR2dbcEquivalent() {
+        assertThatThrownBy(() -> ReactiveDatabase.r2dbcUrl("jdbc:postgresql://db:5432/demo?sslfactory=com.example.Tls"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sslfactory");
+    }
+
+    @Test
+    void rejectsAnUrlThatIsNotJdbc() {
+        assertThatThrownBy(() -> ReactiveDatabase.r2dbcUrl("r2dbc:postgresql://db:5432/demo"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -5,6 +5,7 @@ import com.example.entities.AuthorEntity;
 import com.example.fixtures.AuthorFixture;
 import com.example.fixtures.BookFixture;
 import com.example.model.Author;
+import com.example.model.Book;
 import org.junit.jupiter.api.Test;
 
 import java.util.Optional;
@@ -44,4 +45,42 @@ class AuthorRepositoryTest extends AbstractIntegrationTest implements AuthorFixt
         bookRepository.deleteAll();
         authorRepository.deleteAll();
     }
+
+    @Test
+    void findAuthorByNameReturnsTheBooksOrderedByTitle() {
+        String name = "Stephen King";
+        AuthorEntity authorEntity = saveAuthor(name);
+
+        saveBook("The Stand", authorEntity);
+        saveBook("Carrie", authorEntity);
+        saveBook("It", authorEntity);
+
+        Author author = authorRepository.findAuthorByName(name).orElseThrow();
+        assertThat(author.getBooks())
+                .extracting(Book::getTitle)
+                .containsExactly("Carrie", "It", "The Stand");
+
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void findAuthorByNameWithAPageOfBooks() {
+        String name = "Stephen King";
+        AuthorEntity authorEntity = saveAuthor(name);
+
+        saveBook("The Stand", authorEntity);
+        saveBook("Carrie", authorEntity);
+        saveBook("It", authorEntity);
+        saveBook("Misery", authorEntity);
+
+        Author author = authorRepository.findAuthorByName(name, 1, 2).orElseThrow();
+        assertThat(author.getName()).isEqualTo(name);
+        assertThat(author.getBooks())
+                .extracting(Book::getTitle)
+                .containsExactly("It", "Misery");
+
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class NamedParametersTest {
+
+    @Test
+    void parametersAreNumberedInOrderOfFirstOccurrence() {
+        String sql = NamedParameters.numbered(AuthorReads.SEARCH_BY_NAME, "prefix", "query", "limit", "offset");
+
+        assertThat(sql)
+                .contains("LIKE $1 AS starts", "word_similarity($2,", "LIKE $1 OR lower(a.name) %> $2")
+                .endsWith("LIMIT $3 OFFSET $4")
+                .doesNotContain(":");
+    }
+
+    @Test
+    void parametersAreReplacedByQuestionMarks() {
+        String sql = NamedParameters.positional(AuthorRepository.INSERT_OR_SELECT, "name", "name");
+
+        assertThat(sql).contains("VALUES (?, now())", "WHERE name = ? AND").doesNotContain(":name");
+    }
+
+    @Test
+    void castsAreNotParameters() {
+        assertThat(NamedParameters.numbered("SELECT :id::bigint", "id")).isEqualTo("SELECT $1::bigint");
+    }
+
+    @Test
+    void parametersBoundInAnotherOrderAreRejected() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> NamedParameters.numbered(AuthorReads.FIND_BOOKS, "authorId", "offset", "limit"));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> NamedParameters.positional(AuthorRepository.INSERT_OR_SELECT, "name"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.repositories;
+
+import com.example.AbstractIntegrationTest;
+import com.example.fixtures.AuthorFixture;
+import com.example.services.AuthorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.transaction.TransactionOperations;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica is a second, independent PostgreSQL container started by Test Resources, so an author only
+ * found on one of the databases tells which one served the read.
+ */
+class ReplicaRoutingTest extends AbstractIntegrationTest implements AuthorFixture {
+
+    @Inject
+    AuthorService authorService;
+
+    @Inject
+    AuthorReadRouter readRouter;
+
+    @Inject
+    ReplicaAuthorRepository replicaAuthorRepository;
+
+    @Inject
+    ReplicaLagMonitor lagMonitor;
+
+    @Inject
+    @Named("replica")
+    DataSource replicaDataSource;
+
+    @Inject
+    TransactionOperations<Connection> transactionOperations;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("datasources.replica.db-type", "postgres");
+        props.put("datasources.replica.dialect", "POSTGRES");
+        props.put("datasources.replica.driver-class-name", "org.postgresql.Driver");
+        props.put("datasources.default.pool-name", "default");
+        props.put("datasources.replica.pool-name", "replica");
+        props.put("flyway.datasources.replica.enabled", "true");
+        props.put("replica.enabled", "true");
+        props.put("replica.lag-check-interval", "1h");
+        return props;
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        lagMonitor.record(Duration.ZERO);
+        authorRepository.deleteAll();
+        try (Connection connection = replicaConnection()) {
+            connection.createStatement().executeUpdate("DELETE FROM author");
+        }
+    }
+
+    @Test
+    void readsGoToTheReplica() throws SQLException {
+        lagMonitor.check();
+        saveAuthor("Only on the primary");
+        saveReplicaAuthor("Only on the replica");
+
+        assertThat(authorService.findAuthorByName("Only on the primary")).isEmpty();
+        assertThat(authorService.findAuthorByName("Only on the replica")).isPresent();
+    }
+
+    @Test
+    void readsGoToThePrimaryWhenTheReplicaIsLagging() {
+        lagMonitor.record(Duration.ofMinutes(1));
+        saveAuthor("Only on the primary");
+
+        assertThat(authorService.findAuthorByName("Only on the primary")).isPresent();
+    }
+
+    @Test
+    void readsGoToThePrimaryWhenTheReplicaIsUnreachable() {
+        lagMonitor.record(null);
+        saveAuthor("Only on the primary");
+
+        assertThat(authorService.findAuthorByName("Only on the primary")).isPresent();
+    }
+
+    @Test
+    void readsInsideAReadWriteTransactionStayOnThePrimary() {
+        lagMonitor.record(Duration.ZERO);
+
+        AuthorReads insideWrite = transactionOperations.executeWrite(status -> readRouter.reads());
+        AuthorReads insideRead = transactionOperations.executeRead(status -> readRouter.reads());
+
+        // Repositories are not singletons, each injection point gets its own instance
+        assertThat(insideWrite).isInstanceOf(AuthorRepository.class);
+        assertThat(insideRead).isInstanceOf(ReplicaAuthorRepository.class);
+        assertThat(readRouter.reads()).isInstanceOf(ReplicaAuthorRepository.class);
+    }
+
+    @Test
+    void poolMetricsArePublishedPerDatasource() {
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "default").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("replica.lag").gauge()).isNotNull();
+    }
+
+    private void saveReplicaAuthor(String name) throws SQLException {
+        try (Connection connection = replicaConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO author (name, date_created) VALUES (?, now())")) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+        }
+    }
+
+    private Connection replicaConnection() throws SQLException {
+        return DelegatingDataSource.unwrapDataSource(replicaDataSource).getConnection();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.repositories;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.intercept.annotation.DataMethod;
+import io.micronaut.data.intercept.annotation.DataMethodQueryParameter;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.inject.ExecutableMethod;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the query plans of the hot author/book queries against the indexes created by the migrations.
+ * <p>
+ * The plans are those of the SQL Micronaut Data generated for the repository methods, read from the metadata of the
+ * methods and bound to the arguments like Micronaut Data binds them. The test tables only hold a handful of rows,
+ * where a sequential scan is always the cheapest plan, so sequential scans are disabled for the EXPLAIN statements
+ * to make the planner pick the index it would use on a production sized table.
+ * </p>
+ */
+class SchemaIndexesTest extends AbstractIntegrationTest implements AuthorFixture, BookFixture {
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    JdbcOperations jdbcOperations;
+
+    private AuthorEntity king;
+
+    @BeforeEach
+    void saveCatalogue() {
+        king = saveAuthor("Stephen King");
+        saveBook("The Stand", king);
+        saveBook("Carrie", king);
+        saveAuthor("Neil Gaiman");
+    }
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void findByNameUsesTheUniqueNameIndex() {
+        String plan = explain(AuthorRepository.class, "findByName", "Stephen King");
+
+        assertThat(plan).contains("author_name_key");
+    }
+
+    @Test
+    void searchByNameUsesTheTrigramIndex() {
+        String plan = explain(AuthorRepository.class, "searchByName", "stephen k", "stephen k%", 0, 20);
+
+        assertThat(plan).contains("author_name_trgm_idx");
+    }
+
+    @Test
+    void findBooksUsesTheAuthorTitleIndexWithoutSorting() {
+        String plan = explain(AuthorRepository.class, "findBooks", king.id(), 0, 20);
+
+        assertThat(plan)
+                .contains("book_author_id_title_idx")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void findStatsReadsBothTablesByPrimaryKey() {
+        String plan = explain(AuthorRepository.class, "findStats", king.id());
+
+        assertThat(plan)
+                .contains("author_pkey")
+                .contains("author_stats_pkey");
+    }
+
+    /**
+     * EXPLAIN the query of a repository method.
+     *
+     * @param repository The repository interface
+     * @param methodName The query method, the one taking as many parameters as there are arguments
+     * @param arguments  The arguments of the method
+     * @return The plan
+     */
+    private String explain(Class<?> repository, String methodName, Object... arguments) {
+        ExecutableMethod<?, ?> method = applicationContext.getBeanDefinition(repository).getExecutableMethods().stream()
+                .filter(m -> m.getMethodName().equals(methodName) && m.getArguments().length == arguments.length)
+                .findFirst()
+                .orElseThrow();
+        // rawQuery is a @Query with its named parameters replaced by ?, value the query of a derived method
+        String sql = method.stringValue(Query.class, "rawQuery")
+                .or(() -> method.stringValue(Query.class))
+                .orElseThrow();
+        // One per ?, in order, each pointing to the argument bound to it
+        List<AnnotationValue<DataMethodQueryParameter>> parameters = method.getAnnotation(DataMethod.class)
+                .getAnnotations(DataMethod.META_MEMBER_PARAMETERS, DataMethodQueryParameter.class);
+
+        return jdbcOperations.execute(connection -> {
+            try (Statement statement = connection.createStatement();
+                 PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    int argument = parameters.get(i).intValue(DataMethodQueryParameter.META_MEMBER_PARAMETER_INDEX)
+                            .orElseThrow();
+                    explain.setObject(i + 1, arguments[argument]);
+                }
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    StringJoiner plan = new StringJoiner(System.lineSeparator());
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+}
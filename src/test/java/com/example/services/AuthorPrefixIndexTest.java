@@ -0,0 +1,82 @@
+package com.example.services;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.model.AuthorMatch;
+import io.micronaut.core.annotation.NonNull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorPrefixIndexTest extends AbstractIntegrationTest implements AuthorFixture, BookFixture {
+
+    @Inject
+    AuthorPrefixIndex prefixIndex;
+
+    @Inject
+    AuthorService authorService;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("authors.search.prefix-index.enabled", "true");
+        props.put("authors.search.prefix-index.refresh-interval", "1h");
+        return props;
+    }
+
+    @BeforeEach
+    void saveAuthors() {
+        AuthorEntity king = saveAuthor("Stephen King");
+        saveBook("Carrie", king);
+        saveBook("It", king);
+        saveBook("The Stand", king);
+        AuthorEntity kingsley = saveAuthor("Stephen Kingsley");
+        saveBook("Anna", kingsley);
+        saveAuthor("Stephenie Meyer");
+        prefixIndex.refresh();
+    }
+
+    @AfterEach
+    void deleteAuthors() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        prefixIndex.refresh();
+    }
+
+    @Test
+    void findReturnsTheMostProlificAuthorsFirst() {
+        assertThat(prefixIndex.find("stephen", 2))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephen King", "Stephen Kingsley");
+    }
+
+    @Test
+    void findReturnsNothingWhenTheHotNamesDoNotFillThePage() {
+        assertThat(prefixIndex.find("stephen", 3)).isEmpty();
+        assertThat(prefixIndex.find("neil", 1)).isEmpty();
+    }
+
+    @Test
+    void theNextPagesFollowThePageOfTheIndex() {
+        assertThat(prefixIndex.find("stephen", 2))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephen King", "Stephen Kingsley");
+        assertThat(authorService.searchAuthors("stephen", 0, 2))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephen King", "Stephen Kingsley");
+        assertThat(authorService.searchAuthors("stephen", 2, 2))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephenie Meyer");
+        assertThat(authorService.searchAuthors("stephen", 0, 3))
+                .extracting(AuthorMatch::getName)
+                .containsExactly("Stephen King", "Stephen Kingsley", "Stephenie Meyer");
+    }
+}
@@ -8,6 +8,8 @@ import com.example.model.Author;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AuthorServiceTest extends AbstractIntegrationTest implements AuthorFixture, BookFixture {
@@ -19,11 +21,27 @@ class AuthorServiceTest extends AbstractIntegrationTest implements AuthorFixture
     void saveAnAuthor() {
         String name = "Stephen King";
 
-        Author author = authorService.saveAuthor(name);
+        SavedAuthor saved = authorService.saveAuthor(name);
+
+        assertThat(saved.created()).isTrue();
+        assertThat(saved.author().getId()).isNotNull();
+        assertThat(saved.author().getName()).isEqualTo(name);
+
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void aBookAddedTwiceWithTheSameKeyIsAddedOnce() {
+        AuthorEntity authorEntity = saveAuthor();
+        UUID key = UUID.randomUUID();
 
-        assertThat(author.getId()).isNotNull();
-        assertThat(author.getName()).isEqualTo(name);
+        authorService.addBookToAuthor(createSaveBook(authorEntity.id()), key);
+        authorService.addBookToAuthor(createSaveBook(authorEntity.id()), key);
+        authorService.addBookToAuthor(createSaveBook(Long.MAX_VALUE), UUID.randomUUID());
 
+        assertThat(bookRepository.count()).isEqualTo(1);
+
+        bookRepository.deleteAll();
         authorRepository.deleteAll();
     }
 
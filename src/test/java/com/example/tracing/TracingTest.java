@@ -0,0 +1,172 @@
+package com.example.tracing;
+
+import com.example.AbstractServerTest;
+import com.example.entities.AuthorEntity;
+import com.example.fixtures.AuthorFixture;
+import com.example.fixtures.BookFixture;
+import com.example.model.Author;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the span tree of {@code /authors/by-name}, exported in memory with every trace sampled.
+ */
+class TracingTest extends AbstractServerTest implements AuthorFixture, BookFixture {
+
+    @Inject
+    InMemorySpanExporter exporter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("otel.traces.sampler", "always_on");
+        return props;
+    }
+
+    @Override
+    protected String getSpecName() {
+        return "TracingTest";
+    }
+
+    @Override
+    protected boolean mockSecurityServiceEnabled() {
+        return false;
+    }
+
+    @BeforeEach
+    void resetSpans() {
+        exporter.reset();
+    }
+
+    @AfterEach
+    void deleteCatalogue() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void findAuthorByNameSpanTree() throws InterruptedException {
+        AuthorEntity author = saveAuthor("Stephen King");
+        saveBook("Carrie", author);
+        saveBook("It", author);
+
+        getClient().retrieve(HttpRequest.GET(byName("admin")), Author.class);
+
+        List<SpanData> spans = awaitServerSpan();
+        SpanData server = only(spans, SpanKind.SERVER);
+        assertThat(server.getName()).isEqualTo("GET /authors/by-name");
+
+        SpanData controller = child(spans, server, "AuthorController.findAuthorByName");
+        child(spans, controller, "SecurityServiceImpl.canUserAccess");
+        SpanData service = child(spans, controller, "AuthorServiceImpl.findAuthorByName");
+        SpanData findByName = child(spans, service, "AuthorReads.findByName");
+        SpanData findBooks = child(spans, service, "AuthorReads.findBooks");
+
+        // Each repository call waits for its own connection
+        child(spans, findByName, ConnectionAcquireTracing.SPAN_NAME);
+        child(spans, findBooks, ConnectionAcquireTracing.SPAN_NAME);
+        assertThat(spans).allMatch(span -> span.getTraceId().equals(server.getTraceId()));
+    }
+
+    @Test
+    void unauthorizedRequestsStopAfterTheSecurityCheck() throws InterruptedException {
+        assertThrows(HttpClientResponseException.class,
+                () -> getClient().retrieve(HttpRequest.GET(byName("guest")), Author.class));
+
+        List<SpanData> spans = awaitServerSpan();
+        SpanData controller = child(spans, only(spans, SpanKind.SERVER), "AuthorController.findAuthorByName");
+        child(spans, controller, "SecurityServiceImpl.canUserAccess");
+
+        assertThat(controller.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        assertThat(spans).extracting(SpanData::getName).doesNotContain("AuthorServiceImpl.findAuthorByName");
+    }
+
+    @Test
+    void thePoolMetricsAreStillRegistered() {
+        saveAuthor("Stephen King");
+
+        // One timer per pool, the replica pool included when it is configured
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timers())
+                .isNotEmpty()
+                .anySatisfy(timer -> assertThat(timer.count()).isPositive());
+    }
+
+    private static URI byName(String username) {
+        return UriBuilder.of("/authors/by-name")
+                .queryParam("author", "Stephen King")
+                .queryParam("username", username)
+                .build();
+    }
+
+    /**
+     * The server span ends once the response is written, possibly after the client got it.
+     */
+    private List<SpanData> awaitServerSpan() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            List<SpanData> spans = exporter.getFinishedSpanItems();
+            if (spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER)) {
+                return spans;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No server span exported: " + exporter.getFinishedSpanItems());
+    }
+
+    private static SpanData only(List<SpanData> spans, SpanKind kind) {
+        List<SpanData> found = spans.stream().filter(span -> span.getKind() == kind).toList();
+        assertThat(found).hasSize(1);
+        return found.get(0);
+    }
+
+    private static SpanData child(List<SpanData> spans, SpanData parent, String name) {
+        List<SpanData> children = spans.stream()
+                .filter(span -> span.getParentSpanId().equals(parent.getSpanId()) && span.getName().equals(name))
+                .toList();
+        assertThat(children)
+                .describedAs("%s under %s in %s", name, parent.getName(), spans)
+                .hasSize(1);
+        return children.get(0);
+    }
+
+    @Factory
+    @Requires(property = "spec.name", value = "TracingTest")
+    static class InMemorySpans {
+
+        @Singleton
+        InMemorySpanExporter exporter() {
+            return InMemorySpanExporter.create();
+        }
+
+        @Singleton
+        SpanProcessor spanProcessor(InMemorySpanExporter exporter) {
+            return SimpleSpanProcessor.create(exporter);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.writebehind;
+
+import com.example.AbstractIntegrationTest;
+import com.example.entities.AuthorEntity;
+import com.example.entities.BookEntity;
+import com.example.exceptions.WriteBehindQueueFullException;
+import com.example.fixtures.AuthorFixture;
+import com.example.services.AuthorService;
+import com.example.services.SaveBook;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookWriteBehindTest extends AbstractIntegrationTest implements AuthorFixture {
+
+    @Inject
+    BookWriteBehind writeBehind;
+
+    @Inject
+    AuthorService authorService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    JdbcOperations jdbcOperations;
+
+    @Override
+    @NonNull
+    public Map<String, String> getProperties() {
+        Map<String, String> props = super.getProperties();
+        props.put("write-behind.enabled", "true");
+        props.put("write-behind.directory", temporaryDirectory().toString());
+        props.put("write-behind.capacity", "3");
+        props.put("write-behind.batch-size", "2");
+        props.put("write-behind.drain-interval", "1h");
+        props.put("concurrency-limit.enabled", "true");
+        return props;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        writeBehind.drain();
+        jdbcOperations.execute(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate("DELETE FROM book_dead_letter");
+            }
+        });
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void submittedBooksAreWrittenByTheDrain() {
+        AuthorEntity author = saveAuthor("Stephen King");
+
+        writeBehind.submit(new SaveBook("Carrie", 199, author.id()));
+        writeBehind.submit(new SaveBook("It", 1138, author.id()));
+        writeBehind.submit(new SaveBook("The Stand", 823, author.id()));
+        assertThat(writeBehind.depth()).isEqualTo(3);
+
+        writeBehind.drain();
+
+        assertThat(writeBehind.depth()).isZero();
+        assertThat(bookRepository.findAll()).extracting(BookEntity::title)
+                .containsExactlyInAnyOrder("Carrie", "It", "The Stand");
+    }
+
+    @Test
+    void aBookSubmittedTwiceWithTheSameKeyIsWrittenOnce() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        UUID key = UUID.randomUUID();
+
+        writeBehind.submit(key, new SaveBook("Carrie", 199, author.id()));
+        writeBehind.drain();
+        writeBehind.submit(key, new SaveBook("Carrie", 199, author.id()));
+        writeBehind.drain();
+
+        assertThat(bookRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void theAuthorServiceQueuesTheBooks() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        UUID key = UUID.randomUUID();
+
+        authorService.addBookToAuthor(new SaveBook("Carrie", 199, author.id()));
+        authorService.addBookToAuthor(new SaveBook("It", 1138, author.id()), key);
+        authorService.addBookToAuthor(new SaveBook("It", 1138, author.id()), key);
+        assertThat(writeBehind.depth()).isEqualTo(3);
+        assertThat(bookRepository.count()).isZero();
+        // Appending to the log is not a database call, the jdbc limit never saw one
+        assertThat(meterRegistry.find("concurrency_limit.limit").tag("name", "jdbc").gauge()).isNull();
+
+        writeBehind.drain();
+
+        assertThat(bookRepository.findAll()).extracting(BookEntity::title).containsExactlyInAnyOrder("Carrie", "It");
+    }
+
+    @Test
+    void booksOfAnUnknownAuthorAreDropped() {
+        writeBehind.submit(new SaveBook("Carrie", 199, Long.MAX_VALUE));
+        writeBehind.drain();
+
+        assertThat(writeBehind.depth()).isZero();
+        assertThat(bookRepository.count()).isZero();
+    }
+
+    @Test
+    void booksTheDatabaseRejectsAreMovedToTheDeadLetters() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        double deadLettered = meterRegistry.counter("write_behind.dead_lettered").count();
+
+        // Valid, but PostgreSQL cannot store a NUL character: the batch, then the book alone, fail on every attempt
+        UUID rejected = writeBehind.submit(new SaveBook("Carrie\u0000", 199, author.id()));
+        writeBehind.submit(new SaveBook("It", 1138, author.id()));
+        writeBehind.submit(new SaveBook("The Stand", 823, author.id()));
+        writeBehind.drain();
+
+        assertThat(writeBehind.depth()).isZero();
+        assertThat(bookRepository.findAll()).extracting(BookEntity::title)
+                .containsExactlyInAnyOrder("It", "The Stand");
+        String sqlState = jdbcOperations.execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT sql_state FROM book_dead_letter WHERE idempotency_key = ?")) {
+                statement.setObject(1, rejected);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getString(1) : null;
+                }
+            }
+        });
+        assertThat(sqlState).startsWith("22");
+        assertThat(meterRegistry.counter("write_behind.dead_lettered").count()).isEqualTo(deadLettered + 1);
+    }
+
+    @Test
+    void submissionsAreRejectedWhenTheQueueIsFull() {
+        AuthorEntity author = saveAuthor("Stephen King");
+        for (int i = 0; i < 3; i++) {
+            writeBehind.submit(new SaveBook("Book " + i, 100, author.id()));
+        }
+
+        assertThrows(WriteBehindQueueFullException.class,
+                () -> writeBehind.submit(new SaveBook("One too many", 100, author.id())));
+    }
+
+    @Test
+    void invalidBooksAreRejectedBeforeBeingQueued() {
+        assertThrows(ConstraintViolationException.class,
+                () -> writeBehind.submit(new SaveBook("", 0, 1L)));
+        // Longer than the book.title column
+        assertThrows(ConstraintViolationException.class,
+                () -> writeBehind.submit(new SaveBook("x".repeat(256), 100, 1L)));
+        assertThat(writeBehind.depth()).isZero();
+    }
+
+    private static Path temporaryDirectory() {
+        try {
+            return Files.createTempDirectory("write-behind");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.writebehind;
+
+import com.example.services.SaveBook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookWriteLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void booksArePeekedInOrderUntilCommitted() throws IOException {
+        try (BookWriteLog log = new BookWriteLog(directory, 10, Long.MAX_VALUE, false)) {
+            log.offer(entry("Carrie"));
+            log.offer(entry("It"));
+            log.offer(entry("The Stand"));
+
+            BookWriteLog.Batch batch = log.peek(2);
+            assertThat(batch.entries()).extracting(e -> e.book().getTitle()).containsExactly("Carrie", "It");
+            assertThat(log.peek(2).entries()).extracting(e -> e.book().getTitle()).containsExactly("Carrie", "It");
+
+            log.commit(batch);
+            assertThat(log.size()).isEqualTo(1);
+            assertThat(log.peek(2).entries()).extracting(e -> e.book().getTitle()).containsExactly("The Stand");
+        }
+    }
+
+    @Test
+    void offerIsRejectedWhenTheLogIsFull() throws IOException {
+        try (BookWriteLog log = new BookWriteLog(directory, 2, Long.MAX_VALUE, false)) {
+            assertThat(log.offer(entry("Carrie"))).isTrue();
+            assertThat(log.offer(entry("It"))).isTrue();
+            assertThat(log.offer(entry("The Stand"))).isFalse();
+
+            log.commit(log.peek(10));
+            assertThat(log.size()).isZero();
+            assertThat(log.offer(entry("The Stand"))).isTrue();
+        }
+    }
+
+    @Test
+    void offerIsRejectedWhenTheQueuedBooksExceedTheMaxSize() throws IOException {
+        // 42 bytes per book
+        try (BookWriteLog log = new BookWriteLog(directory, 10, 100, false)) {
+            assertThat(log.offer(entry("Book 1"))).isTrue();
+            assertThat(log.offer(entry("Book 2"))).isTrue();
+            assertThat(log.offer(entry("Book 3"))).isFalse();
+        }
+    }
+
+    @Test
+    void theLogIsCompactedWhileBooksAreStillQueued() throws IOException {
+        Path file = directory.resolve("books.log");
+        try (BookWriteLog log = new BookWriteLog(directory, 10, 100, true)) {
+            log.offer(entry("Book 1"));
+            for (int i = 2; i <= 4; i++) {
+                log.offer(entry("Book " + i));
+                log.commit(log.peek(1));
+            }
+            // Books 1 to 3 are committed, the log only holds book 4
+            assertThat(Files.size(file)).isEqualTo(42);
+            assertThat(log.peek(10).entries()).extracting(e -> e.book().getTitle()).containsExactly("Book 4");
+            log.offer(entry("Book 5"));
+        }
+
+        try (BookWriteLog log = new BookWriteLog(directory, 10, 100, true)) {
+            assertThat(log.peek(10).entries()).extracting(e -> e.book().getTitle())
+                    .containsExactly("Book 4", "Book 5");
+        }
+    }
+
+    @Test
+    void uncommittedBooksAreReplayedAfterReopening() throws IOException {
+        BookWriteLog.Entry carrie = entry("Carrie");
+        BookWriteLog.Entry it = entry("It");
+        try (BookWriteLog log = new BookWriteLog(directory, 10, Long.MAX_VALUE, true)) {
+            log.offer(carrie);
+            log.offer(it);
+            log.commit(log.peek(1));
+        }
+
+        try (BookWriteLog log = new BookWriteLog(directory, 10, Long.MAX_VALUE, true)) {
+            assertThat(log.size()).isEqualTo(1);
+            BookWriteLog.Entry replayed = log.peek(10).entries().getFirst();
+            assertThat(replayed.key()).isEqualTo(it.key());
+            assertThat(replayed.book().getTitle()).isEqualTo("It");
+            assertThat(replayed.book().getPages()).isEqualTo(it.book().getPages());
+            assertThat(replayed.book().getAuthorId()).isEqualTo(it.book().getAuthorId());
+        }
+    }
+
+    @Test
+    void aTornRecordAtTheEndIsDiscarded() throws IOException {
+        try (BookWriteLog log = new BookWriteLog(directory, 10, Long.MAX_VALUE, true)) {
+            log.offer(entry("Carrie"));
+            log.offer(entry("It"));
+        }
+        Path file = directory.resolve("books.log");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (BookWriteLog log = new BookWriteLog(directory, 10, Long.MAX_VALUE, true)) {
+            assertThat(log.peek(10).entries()).extracting(e -> e.book().getTitle()).containsExactly("Carrie");
+            log.offer(entry("The Stand"));
+            assertThat(log.peek(10).entries()).extracting(e -> e.book().getTitle()).containsExactly("Carrie", "The Stand");
+        }
+    }
+
+    private static BookWriteLog.Entry entry(String title) {
+        return new BookWriteLog.Entry(UUID.randomUUID(), new SaveBook(title, 199, 42L));
+    }
+}